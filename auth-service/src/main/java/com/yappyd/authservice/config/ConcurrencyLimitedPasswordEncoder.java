@@ -0,0 +1,77 @@
+package com.yappyd.authservice.config;
+
+import com.yappyd.authservice.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caps how many password hashes run at once. BCrypt is pure CPU, so on virtual threads an unbounded login burst
+ * would occupy every carrier and stall unrelated requests; waiting on the semaphore parks the virtual thread instead.
+ * A hash that cannot get a permit within {@code maxWait} fails with {@link PasswordHashingBusyException} rather than
+ * joining an ever longer queue, and is counted in {@code auth.password.rejected}.
+ * Time spent waiting for a permit ({@code auth.password.wait}) is recorded apart from the hashing itself
+ * ({@code auth.password.hash}), so a login slowdown shows whether hashes are queueing or getting slower.
+ */
+public class ConcurrencyLimitedPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+    private final Timer waitTimer;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+    public ConcurrencyLimitedPasswordEncoder(PasswordEncoder delegate, int maxConcurrentHashes, Duration maxWait,
+                                             MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrentHashes, true);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.waitTimer = meterRegistry.timer("auth.password.wait");
+        this.encodeTimer = meterRegistry.timer("auth.password.hash", "operation", "encode");
+        this.matchesTimer = meterRegistry.timer("auth.password.hash", "operation", "matches");
+        this.rejectedCounter = meterRegistry.counter("auth.password.rejected");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return limited(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return limited(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T limited(Timer hashTimer, Supplier<T> hashing) {
+        long waitStarted = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        waitTimer.record(System.nanoTime() - waitStarted, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejectedCounter.increment();
+            throw new PasswordHashingBusyException("Too many password checks in progress");
+        }
+        try {
+            return hashTimer.record(hashing);
+        } finally {
+            permits.release();
+        }
+    }
+}
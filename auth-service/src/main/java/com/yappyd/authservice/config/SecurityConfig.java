@@ -1,15 +1,22 @@
 package com.yappyd.authservice.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+
 @Configuration
 public class SecurityConfig {
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${security.password.max-concurrent-hashes:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+            int maxConcurrentHashes,
+            @Value("${security.password.max-wait:1s}") Duration maxWait, MeterRegistry meterRegistry) {
+        return new ConcurrencyLimitedPasswordEncoder(new BCryptPasswordEncoder(), maxConcurrentHashes, maxWait, meterRegistry);
     }
 }
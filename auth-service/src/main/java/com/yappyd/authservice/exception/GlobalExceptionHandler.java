@@ -2,6 +2,7 @@ package com.yappyd.authservice.exception;
 
 import com.yappyd.authservice.dto.ErrorResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -60,6 +61,20 @@ public class GlobalExceptionHandler {
         return  new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
     }
 
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<ErrorResponse> handlePasswordHashingBusy(PasswordHashingBusyException ex) {
+        log.warn("Password check rejected: {}", ex.getMessage());
+
+        ErrorResponse error = new ErrorResponse(
+                "Service busy",
+                "Too many sign-ins in progress, please retry shortly",
+                HttpStatus.SERVICE_UNAVAILABLE.value()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException ex) {
         StringBuilder details = new StringBuilder();
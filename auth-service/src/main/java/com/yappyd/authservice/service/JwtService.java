@@ -2,6 +2,7 @@ package com.yappyd.authservice.service;
 
 import com.yappyd.authservice.exception.InvalidTokenException;
 import io.jsonwebtoken.*;
+import io.micrometer.core.annotation.Timed;
 import jakarta.annotation.PostConstruct;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -78,6 +79,7 @@ public class JwtService {
         }
     }
 
+    @Timed(value = "auth.jwt.sign", extraTags = {"token", "access"})
     public String generateAccessToken(String username) {
         log.info("Generating access token for username={}", username);
 
@@ -89,6 +91,7 @@ public class JwtService {
         return token;
     }
 
+    @Timed(value = "auth.jwt.sign", extraTags = {"token", "refresh"})
     public String generateRefreshToken(String username) {
         log.info("Generating refresh token for username={}", username);
 
@@ -114,6 +117,7 @@ public class JwtService {
                 .compact();
     }
 
+    @Timed(value = "auth.jwt.verify", extraTags = {"operation", "extract-username"})
     public String extractUsername(String token) {
         log.debug("Extracting username from token");
 
@@ -130,6 +134,7 @@ public class JwtService {
         }
     }
 
+    @Timed(value = "auth.jwt.verify", extraTags = {"operation", "validate"})
     public void validateToken(String token, TokenRole type) {
         log.debug("Validating {} token", type.name().toLowerCase());
 
@@ -0,0 +1,54 @@
+package com.yappyd.authservice.config;
+
+import com.yappyd.authservice.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyLimitedPasswordEncoderTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch hashing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    void shouldRejectHashesThatWaitLongerThanMaxWait() throws Exception {
+        ConcurrencyLimitedPasswordEncoder encoder =
+                new ConcurrencyLimitedPasswordEncoder(new BlockingEncoder(), 1, Duration.ofMillis(50), meterRegistry);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> encoder.matches("second", "{encoded}second"))
+                .isInstanceOf(PasswordHashingBusyException.class);
+        assertThat(meterRegistry.counter("auth.password.rejected").count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("{encoded}first");
+        assertThat(encoder.matches("second", "{encoded}second")).isTrue();
+    }
+
+    private class BlockingEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            hashing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "{encoded}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals("{encoded}" + rawPassword);
+        }
+    }
+}
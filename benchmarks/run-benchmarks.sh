@@ -0,0 +1,17 @@
+#!/usr/bin/env bash
+# Builds the JMH suites and runs them, writing machine-readable results to benchmarks/results/<label>.json.
+#
+#   ./benchmarks/run-benchmarks.sh                        # every suite, labelled with the current commit
+#   ./benchmarks/run-benchmarks.sh v0.2.0                 # label the results with a release
+#   ./benchmarks/run-benchmarks.sh v0.2.0 JwtService      # only suites matching a regex; further args go to JMH
+#
+# Compare two result files by pasting them into https://jmh.morethan.io or diffing their primaryMetric scores.
+set -euo pipefail
+
+LABEL=${1:-$(git rev-parse --short HEAD)}
+shift || true
+
+cd "$(dirname "$0")/.."
+mvn -q -Pbenchmarks -pl benchmarks -am package -DskipTests
+mkdir -p benchmarks/results
+java -jar benchmarks/target/benchmarks.jar -rf json -rff "benchmarks/results/$LABEL.json" "$@"
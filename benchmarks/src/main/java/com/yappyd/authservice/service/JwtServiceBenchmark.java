@@ -0,0 +1,86 @@
+package com.yappyd.authservice.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuing and checking as done on every login, refresh and authenticated auth-service call. Runs against a
+ * fresh 2048-bit RSA key, the size the service is deployed with.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+    private JwtService jwtService;
+    private String accessToken;
+
+    @Setup
+    public void setUp() throws IOException, GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        Path keys = Files.createTempDirectory("jwt-benchmark");
+        Path privateKey = writePem(keys.resolve("private.pem"), "PRIVATE KEY", keyPair.getPrivate().getEncoded());
+        Path publicKey = writePem(keys.resolve("public.pem"), "PUBLIC KEY", keyPair.getPublic().getEncoded());
+
+        jwtService = new JwtService();
+        set("privateKeyPath", privateKey.toString());
+        set("publicKeyPath", publicKey.toString());
+        set("accessExpiration", Duration.ofMinutes(15));
+        set("refreshExpiration", Duration.ofDays(7));
+        set("issuer", "auth-service");
+        jwtService.init();
+        accessToken = jwtService.generateAccessToken("bench-user");
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtService.generateAccessToken("bench-user");
+    }
+
+    @Benchmark
+    public void validateToken() {
+        jwtService.validateToken(accessToken, JwtService.TokenRole.ACCESS);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(accessToken);
+    }
+
+    private void set(String name, Object value) {
+        Field field = ReflectionUtils.findField(JwtService.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, jwtService, value);
+    }
+
+    private static Path writePem(Path file, String type, byte[] content) throws IOException {
+        String pem = "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(content)
+                + "\n-----END " + type + "-----\n";
+        return Files.writeString(file, pem);
+    }
+}
@@ -0,0 +1,87 @@
+package com.yappyd.taskservice.service;
+
+import com.yappyd.taskservice.TaskServiceApplication;
+import com.yappyd.taskservice.dto.TaskCreateRequest;
+import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.model.Task.*;
+import com.yappyd.taskservice.shard.ShardDataSources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Creating tasks one transaction per task, as repeated POST /tasks/create calls do, against a single POST /tasks/batch
+ * transaction whose inserts go out in JDBC batches. Runs the task-service application on in-memory H2, called directly
+ * rather than over HTTP; scores are tasks per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TaskBatchInsertBenchmark {
+    private static final int TASKS = 500;
+    private static final String USERNAME = "bench-user";
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private JdbcTemplate jdbcTemplate;
+    private List<TaskCreateRequest> requests;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(TaskServiceApplication.class)
+                .properties("server.port=0", "eureka.client.enabled=false", "task.query.slow-threshold=1h",
+                        "spring.datasource.url=jdbc:h2:mem:batchbench;DB_CLOSE_DELAY=-1")
+                .run();
+        taskService = context.getBean(TaskService.class);
+        jdbcTemplate = new JdbcTemplate(context.getBean(ShardDataSources.class).get(0));
+        requests = IntStream.range(0, TASKS)
+                .mapToObj(i -> new TaskCreateRequest("Bench task " + i, "Prepare the quarterly report and send it to the team",
+                        TaskPriority.MEDIUM, TaskStatus.TODO, LocalDate.of(2030, 1, 1).plusDays(i % 365)))
+                .toList();
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearTasks() {
+        jdbcTemplate.update("DELETE FROM task");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASKS)
+    public void createOneByOne() {
+        for (TaskCreateRequest request : requests) {
+            taskService.createTask(request, USERNAME);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TASKS)
+    public List<TaskResponse> createBatch() {
+        return taskService.createTasks(requests, USERNAME);
+    }
+}
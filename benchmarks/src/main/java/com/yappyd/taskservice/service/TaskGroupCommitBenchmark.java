@@ -0,0 +1,89 @@
+package com.yappyd.taskservice.service;
+
+import com.yappyd.taskservice.TaskServiceApplication;
+import com.yappyd.taskservice.dto.TaskCreateRequest;
+import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.model.Task.*;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent single-task creates, as POST /tasks/create calls make them, with and without group commit. Runs the
+ * task-service application on a file database that writes every commit through ({@code H2_WRITE_DELAY_MS=0}), since
+ * commits are what group commit saves; scores are tasks per second.
+ *
+ * <p>On one CPU, after warmup: about 530-600 creates/s one transaction per task, about 1990-2310 creates/s grouped with
+ * {@code maxWait=1ms}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(64)
+@Fork(1)
+public class TaskGroupCommitBenchmark {
+    private static final int USERS = 64;
+
+    @Param({"false", "true"})
+    private boolean groupCommit;
+
+    @Param("1ms")
+    private String maxWait;
+
+    private Path dataDirectory;
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private TaskGroupCommitter taskGroupCommitter;
+    private TaskCreateRequest request;
+
+    @Setup
+    public void setUp() throws IOException {
+        dataDirectory = Files.createTempDirectory("group-commit-benchmark");
+        context = new SpringApplicationBuilder(TaskServiceApplication.class)
+                .profiles("persistent")
+                .properties("server.port=0", "eureka.client.enabled=false", "task.query.slow-threshold=1h",
+                        "TASK_DATA_DIR=" + dataDirectory, "H2_WRITE_DELAY_MS=0", "DB_POOL_SIZE=64",
+                        "task.group-commit.enabled=" + groupCommit, "task.group-commit.max-wait=" + maxWait)
+                .run();
+        taskService = context.getBean(TaskService.class);
+        taskGroupCommitter = groupCommit ? context.getBean(TaskGroupCommitter.class) : null;
+        request = new TaskCreateRequest("Bench task", "Prepare the quarterly report and send it to the team",
+                TaskPriority.MEDIUM, TaskStatus.TODO, LocalDate.of(2030, 1, 1));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(dataDirectory);
+    }
+
+    @Benchmark
+    public TaskResponse create() {
+        String username = "bench-user" + ThreadLocalRandom.current().nextInt(USERS);
+        return taskGroupCommitter != null
+                ? taskGroupCommitter.await(taskGroupCommitter.createTask(request, username))
+                : taskService.createTask(request, username);
+    }
+}
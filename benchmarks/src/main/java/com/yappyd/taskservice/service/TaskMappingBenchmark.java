@@ -0,0 +1,78 @@
+package com.yappyd.taskservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.model.Task;
+import com.yappyd.taskservice.model.Task.*;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * The per-task work of task-service responses: mapping the entity to {@link TaskResponse} and writing it as JSON
+ * with the object mapper Spring Boot configures, for a single task and for a 20-task page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskMappingBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    private ObjectMapper objectMapper;
+    private Task task;
+    private TaskResponse response;
+    private List<Task> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        task = task(1);
+        response = TaskService.toResponse(task);
+        page = IntStream.rangeClosed(1, PAGE_SIZE).mapToObj(TaskMappingBenchmark::task).toList();
+    }
+
+    @Benchmark
+    public TaskResponse toResponse() {
+        return TaskService.toResponse(task);
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page.stream().map(TaskService::toResponse).toList());
+    }
+
+    private static Task task(long id) {
+        return Task.builder()
+                .id(id)
+                .username("bench-user")
+                .title("Bench task " + id)
+                .description("Prepare the quarterly report and send it to the team before the review meeting")
+                .status(TaskStatus.IN_PROGRESS)
+                .priority(TaskPriority.MEDIUM)
+                .deadline(LocalDate.of(2030, 1, 1).plusDays(id))
+                .version(3L)
+                .build();
+    }
+}
@@ -0,0 +1,129 @@
+package com.yappyd.taskservice.service;
+
+import com.yappyd.taskservice.TaskServiceApplication;
+import com.yappyd.taskservice.dto.TaskCreateRequest;
+import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.model.Task.*;
+import com.yappyd.taskservice.search.TaskSearchIndex;
+import com.yappyd.taskservice.search.TaskSearchIndexer;
+import com.yappyd.taskservice.shard.ShardDataSources;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Single-term search over one user's tasks: a LIKE scan of title and description, the lookup in
+ * {@link TaskSearchIndex} alone, and GET /tasks/search as the service runs it (lookup plus loading the top 20 tasks).
+ * Each task has a 5-word title and a 30-word description drawn from a fixed vocabulary; queries cycle through 20
+ * terms. {@code rebuild} times a full index rebuild from the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TaskSearchBenchmark {
+    private static final String USERNAME = "bench-user";
+    private static final int VOCABULARY = 5000;
+    private static final int RESULTS = 20;
+
+    @Param("200000")
+    private int tasks;
+
+    private ConfigurableApplicationContext context;
+    private TaskSearchService taskSearchService;
+    private TaskSearchIndex taskSearchIndex;
+    private TaskSearchIndexer taskSearchIndexer;
+    private JdbcTemplate jdbcTemplate;
+    private List<String> queries;
+    private int nextQuery;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(TaskServiceApplication.class)
+                .properties("server.port=0", "eureka.client.enabled=false", "task.query.slow-threshold=1h",
+                        "spring.datasource.url=jdbc:h2:mem:searchbench;DB_CLOSE_DELAY=-1")
+                .run();
+        taskSearchService = context.getBean(TaskSearchService.class);
+        taskSearchIndex = context.getBean(TaskSearchIndex.class);
+        taskSearchIndexer = context.getBean(TaskSearchIndexer.class);
+        jdbcTemplate = new JdbcTemplate(context.getBean(ShardDataSources.class).get(0));
+
+        Random random = new Random(42);
+        TaskService taskService = context.getBean(TaskService.class);
+        List<TaskCreateRequest> batch = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            batch.add(new TaskCreateRequest(words(random, 5), words(random, 30), TaskPriority.MEDIUM, TaskStatus.TODO,
+                    LocalDate.of(2030, 1, 1).plusDays(i % 365)));
+            if (batch.size() == 1000 || i == tasks - 1) {
+                taskService.createTasks(batch, USERNAME);
+                batch.clear();
+            }
+        }
+        taskSearchIndexer.rebuild();
+        queries = IntStream.range(0, 20).mapToObj(i -> word(random)).toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Long> likeScan() {
+        String pattern = "%" + nextQuery() + "%";
+        return jdbcTemplate.queryForList("SELECT id FROM task WHERE username = ? AND (LOWER(title) LIKE ? OR LOWER(description) LIKE ?)",
+                Long.class, USERNAME, pattern, pattern);
+    }
+
+    @Benchmark
+    public List<Long> indexLookup() {
+        return taskSearchIndex.search(USERNAME, nextQuery(), RESULTS);
+    }
+
+    @Benchmark
+    public List<TaskResponse> search() {
+        return taskSearchService.searchTasks(USERNAME, nextQuery(), RESULTS);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void rebuild() {
+        taskSearchIndexer.rebuild();
+    }
+
+    private String nextQuery() {
+        nextQuery = (nextQuery + 1) % queries.size();
+        return queries.get(nextQuery);
+    }
+
+    private static String words(Random random, int count) {
+        return IntStream.range(0, count).mapToObj(i -> word(random)).collect(Collectors.joining(" "));
+    }
+
+    private static String word(Random random) {
+        return "term%04d".formatted(random.nextInt(VOCABULARY));
+    }
+}
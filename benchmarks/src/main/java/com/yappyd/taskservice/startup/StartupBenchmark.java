@@ -0,0 +1,114 @@
+package com.yappyd.taskservice.startup;
+
+import com.yappyd.taskservice.TaskServiceApplication;
+import com.yappyd.taskservice.dto.TaskCreateRequest;
+import com.yappyd.taskservice.model.Task.*;
+import com.yappyd.taskservice.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starting task-service on a file database ("persistent" profile) that already holds {@code tasks} tasks spread over
+ * {@code users} users: {@code untilAcceptingRequests} ends when the application context is up, {@code untilWarmedUp}
+ * when {@link StartupWarmup} has also finished. The per-warmup durations are in the application log.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class StartupBenchmark {
+    private static final int BATCH_SIZE = 1000;
+
+    @Param("1000000")
+    private int tasks;
+
+    @Param("10000")
+    private int users;
+
+    private Path dataDirectory;
+    private ConfigurableApplicationContext context;
+
+    @Setup
+    public void seed() throws IOException {
+        dataDirectory = Files.createTempDirectory("startup-benchmark");
+        ConfigurableApplicationContext seeding = start();
+        TaskService taskService = seeding.getBean(TaskService.class);
+        TaskStatus[] statuses = TaskStatus.values();
+        LocalDate today = LocalDate.now();
+        int perUser = tasks / users;
+        for (int user = 0; user < users; user++) {
+            List<TaskCreateRequest> batch = new ArrayList<>(BATCH_SIZE);
+            for (int task = 0; task < perUser; task++) {
+                batch.add(new TaskCreateRequest("Task " + task + " of user " + user, "Prepare the quarterly report and send it",
+                        TaskPriority.MEDIUM, statuses[task % statuses.length], today.plusDays(task % 90)));
+                if (batch.size() == BATCH_SIZE || task == perUser - 1) {
+                    taskService.createTasks(batch, "startup-user" + user);
+                    batch.clear();
+                }
+            }
+        }
+        seeding.close();
+    }
+
+    // Warmups still scanning would otherwise overlap the next start.
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        awaitWarmup();
+        context.close();
+    }
+
+    @TearDown
+    public void removeData() throws IOException {
+        FileSystemUtils.deleteRecursively(dataDirectory);
+    }
+
+    @Benchmark
+    public void untilAcceptingRequests() {
+        context = start();
+    }
+
+    @Benchmark
+    public void untilWarmedUp() throws InterruptedException {
+        context = start();
+        awaitWarmup();
+    }
+
+    private void awaitWarmup() throws InterruptedException {
+        StartupWarmup startupWarmup = context.getBean(StartupWarmup.class);
+        while (!startupWarmup.isComplete()) {
+            Thread.sleep(10);
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(TaskServiceApplication.class)
+                .profiles("persistent")
+                .properties("server.port=0", "eureka.client.enabled=false", "task.query.slow-threshold=1h",
+                        "TASK_DATA_DIR=" + dataDirectory)
+                .run();
+    }
+}
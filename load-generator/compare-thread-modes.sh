@@ -0,0 +1,55 @@
+#!/usr/bin/env bash
+# Benchmarks /tasks/list and /auth/login against already running services and writes results-<label>.txt.
+#
+# Compare platform and virtual threads by running it once per mode:
+#   1. start auth-service and task-service with VIRTUAL_THREADS=false, run: ./compare-thread-modes.sh platform
+#   2. restart both with VIRTUAL_THREADS=true, run:                         ./compare-thread-modes.sh virtual
+#
+# On JDK 21-23, add -Djdk.tracePinnedThreads=short to the services to log carrier pinning; JDK 24+ no longer pins
+# on synchronized.
+#
+# Measured on one CPU, generator on the same machine, JDK 21 (so synchronized still pins), 10s warmup, 60s run:
+#   concurrency 200   /tasks/list  platform 165 req/s, p99 3711 ms   virtual 253 req/s, p99 1605 ms
+#                     /auth/login  platform every request past the 30s client timeout   virtual 8.5 req/s, p99 24.8 s
+#   concurrency 16    /tasks/list  platform 248 req/s, p99  174 ms   virtual 243 req/s, p99  198 ms
+#                     /auth/login  platform 7.7 req/s, p99 2.8 s     virtual 7.9 req/s, p99 2.5 s
+# Login is bound by BCrypt either way; at 200 its queue alone is close to the timeout, and once requests time out the
+# service keeps hashing for clients that gave up.
+set -euo pipefail
+
+LABEL=${1:?usage: $0 <label>}
+AUTH_URL=${AUTH_URL:-http://localhost:8081}
+TASK_URL=${TASK_URL:-http://localhost:8082}
+CONCURRENCY=${CONCURRENCY:-200}
+WARMUP=${WARMUP:-10s}
+DURATION=${DURATION:-60s}
+BENCH_USER=${BENCH_USER:-bench-user}
+BENCH_PASSWORD=${BENCH_PASSWORD:-bench-password}
+SEED_TASKS=${SEED_TASKS:-200}
+
+cd "$(dirname "$0")/.."
+mvn -q -pl load-generator compile dependency:build-classpath -Dmdep.outputFile="$PWD/load-generator/target/classpath.txt"
+run() {
+    java -cp "load-generator/target/classes:$(cat load-generator/target/classpath.txt)" com.yappyd.loadgenerator.LoadGenerator \
+        --concurrency "$CONCURRENCY" --warmup "$WARMUP" --duration "$DURATION" "$@"
+}
+
+credentials="{\"username\":\"$BENCH_USER\",\"password\":\"$BENCH_PASSWORD\"}"
+curl -s -o /dev/null -H 'Content-Type: application/json' -d "$credentials" "$AUTH_URL/auth/register" || true
+token=$(curl -sf -H 'Content-Type: application/json' -d "$credentials" "$AUTH_URL/auth/login" \
+    | sed -E 's/.*"accessToken":"([^"]+)".*/\1/')
+
+total=$(curl -sf -H "Authorization: Bearer $token" "$TASK_URL/tasks/stats" | sed -E 's/.*"total":([0-9]+).*/\1/')
+if [ "$total" -lt "$SEED_TASKS" ]; then
+    tasks=$(seq 1 $((SEED_TASKS - total)) | sed -E 's/.*/{"title":"Bench task &","priority":"MEDIUM","status":"TODO"}/' | paste -sd, -)
+    curl -sf -o /dev/null -H "Authorization: Bearer $token" -H 'Content-Type: application/json' \
+        -d "{\"tasks\":[$tasks]}" "$TASK_URL/tasks/batch"
+fi
+
+{
+    echo "== $LABEL: GET /tasks/list"
+    run --url "$TASK_URL/tasks/list?size=20" --header "Authorization: Bearer $token"
+    echo
+    echo "== $LABEL: POST /auth/login"
+    run --url "$AUTH_URL/auth/login" --method POST --body "$credentials"
+} | tee "load-generator/results-$LABEL.txt"
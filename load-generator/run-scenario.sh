@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+# Runs a ScenarioRunner scenario through the api-gateway and writes results-<label>.txt plus per-route HdrHistogram
+# percentile files under results-<label>/.
+#
+# Without TARGET it starts eureka-server, auth-service, task-service and api-gateway from source (logs in
+# load-generator/logs/), waits until the gateway routes to both services, runs the scenario and stops them again.
+# With TARGET it runs against an already running gateway. Options after the label go to ScenarioRunner:
+#   ./run-scenario.sh tasks-500 --scenario tasks --rate 500 --duration 60s
+#   TARGET=http://localhost:8080 ./run-scenario.sh auth-50 --scenario auth --rate 50 --arrival poisson
+#
+# When starting the services, a throwaway RSA key pair is generated unless JWT_PRIVATE_KEY_PATH and JWT_PUBLIC_KEY_PATH
+# are set. Other service settings (VIRTUAL_THREADS, ...) are passed through from the environment.
+set -euo pipefail
+
+LABEL=${1:?usage: $0 <label> [ScenarioRunner options]}
+shift
+TARGET=${TARGET:-}
+STARTUP_TIMEOUT=${STARTUP_TIMEOUT:-300}
+
+cd "$(dirname "$0")/.."
+pids=()
+stop_services() {
+    for pid in "${pids[@]}"; do
+        kill "$pid" 2>/dev/null || true
+    done
+    wait
+}
+trap stop_services EXIT
+
+wait_for() {
+    local url=$1 status=$2 name=$3 deadline=$((SECONDS + STARTUP_TIMEOUT))
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "$url")" = "$status" ]; do
+        if [ "$SECONDS" -ge "$deadline" ]; then
+            echo "$name not ready after ${STARTUP_TIMEOUT}s, see load-generator/logs/" >&2
+            exit 1
+        fi
+        sleep 2
+    done
+}
+
+start() {
+    mvn -q -pl "$1" "org.springframework.boot:spring-boot-maven-plugin:$BOOT_VERSION:run" > "load-generator/logs/$1.log" 2>&1 &
+    pids+=($!)
+}
+
+if [ -z "$TARGET" ]; then
+    TARGET=http://localhost:8080
+    BOOT_VERSION=$(sed -n 's:.*<spring-boot.version>\(.*\)</spring-boot.version>.*:\1:p' pom.xml)
+    if [ -z "${JWT_PRIVATE_KEY_PATH:-}" ]; then
+        keys=$(mktemp -d)
+        openssl genpkey -algorithm RSA -pkeyopt rsa_keygen_bits:2048 -out "$keys/private.pem" 2>/dev/null
+        openssl pkey -in "$keys/private.pem" -pubout -out "$keys/public.pem"
+        export JWT_PRIVATE_KEY_PATH=$keys/private.pem JWT_PUBLIC_KEY_PATH=$keys/public.pem
+    fi
+    mkdir -p load-generator/logs
+    start eureka-server
+    wait_for http://localhost:8761/eureka/apps 200 eureka-server
+    start auth-service
+    start task-service
+    start api-gateway
+    # Both routes resolve only once the gateway has fetched the services from eureka.
+    wait_for "$TARGET/.well-known/jwks.json" 200 "auth-service behind api-gateway"
+    wait_for "$TARGET/tasks/list" 401 "task-service behind api-gateway"
+fi
+
+mvn -q -pl load-generator compile dependency:build-classpath -Dmdep.outputFile="$PWD/load-generator/target/classpath.txt"
+java -cp "load-generator/target/classes:$(cat load-generator/target/classpath.txt)" com.yappyd.loadgenerator.ScenarioRunner \
+    --target "$TARGET" --histogram-dir "load-generator/results-$LABEL" "$@" | tee "load-generator/results-$LABEL.txt"
@@ -0,0 +1,101 @@
+package com.yappyd.loadgenerator;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop HTTP load: {@code concurrency} workers each send a request, wait for the response and send the next
+ * one. Requests during the warmup are sent but not recorded. Prints throughput, latency percentiles and errors by
+ * status in the same table as {@link ScenarioRunner}.
+ *
+ * <pre>
+ * java -cp "load-generator/target/classes:$CLASSPATH" com.yappyd.loadgenerator.LoadGenerator \
+ *     --url http://localhost:8082/tasks/list --header "Authorization: Bearer $TOKEN" \
+ *     --concurrency 200 --warmup 10s --duration 60s
+ * </pre>
+ */
+public class LoadGenerator {
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadOptions options;
+        try {
+            options = LoadOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: LoadGenerator --url URL [--method GET] [--header 'Name: value']... [--body JSON]"
+                    + " [--concurrency 64] [--warmup 5s] [--duration 30s]");
+            System.exit(2);
+            return;
+        }
+        RouteRecorder recorder = new LoadGenerator().run(options);
+        System.out.printf(Locale.ROOT, "%s %s concurrency=%d warmup=%ss duration=%ss%n", options.method(), options.url(),
+                options.concurrency(), options.warmup().toSeconds(), options.duration().toSeconds());
+        RouteRecorder.printHeader(System.out);
+        recorder.printRow(System.out, options.duration().toNanos() / 1_000_000_000.0);
+        recorder.printErrors(System.out);
+    }
+
+    public RouteRecorder run(LoadOptions options) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest request = buildRequest(options);
+
+        long start = System.nanoTime();
+        long recordFrom = start + options.warmup().toNanos();
+        long end = recordFrom + options.duration().toNanos();
+
+        RouteRecorder recorder = new RouteRecorder(options.method() + " " + options.url().getPath());
+        ExecutorService workers = Executors.newFixedThreadPool(options.concurrency());
+        for (int i = 0; i < options.concurrency(); i++) {
+            workers.execute(() -> {
+                long now;
+                while ((now = System.nanoTime()) < end) {
+                    int status;
+                    try {
+                        status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        status = 0;
+                    }
+                    if (now >= recordFrom) {
+                        if (status > 0 && status < 400) {
+                            recorder.record(System.nanoTime() - now);
+                        } else {
+                            recorder.recordError(status);
+                        }
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(options.warmup().plus(options.duration()).toSeconds() + 60, TimeUnit.SECONDS);
+        workers.shutdownNow();
+        return recorder;
+    }
+
+    private static HttpRequest buildRequest(LoadOptions options) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(options.url())
+                .timeout(Duration.ofSeconds(30))
+                .method(options.method(), options.body() == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(options.body()));
+        if (options.body() != null) {
+            builder.header("Content-Type", "application/json");
+        }
+        for (String header : options.headers()) {
+            int separator = header.indexOf(':');
+            builder.header(header.substring(0, separator).trim(), header.substring(separator + 1).trim());
+        }
+        return builder.build();
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.yappyd.loadgenerator;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+public record LoadOptions(
+        URI url,
+        String method,
+        List<String> headers,
+        String body,
+        int concurrency,
+        Duration warmup,
+        Duration duration
+) {
+    public static LoadOptions parse(String[] args) {
+        URI url = null;
+        String method = "GET";
+        List<String> headers = new ArrayList<>();
+        String body = null;
+        int concurrency = 64;
+        Duration warmup = Duration.ofSeconds(5);
+        Duration duration = Duration.ofSeconds(30);
+
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + name);
+            }
+            String value = args[++i];
+            switch (name) {
+                case "--url" -> url = URI.create(value);
+                case "--method" -> method = value.toUpperCase();
+                case "--header" -> headers.add(value);
+                case "--body" -> body = value;
+                case "--concurrency" -> concurrency = Integer.parseInt(value);
+                case "--warmup" -> warmup = parseDuration(value);
+                case "--duration" -> duration = parseDuration(value);
+                default -> throw new IllegalArgumentException("Unknown option " + name);
+            }
+        }
+        if (url == null) {
+            throw new IllegalArgumentException("--url is required");
+        }
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("--concurrency must be positive");
+        }
+        return new LoadOptions(url, method, List.copyOf(headers), body, concurrency, warmup, duration);
+    }
+
+    /**
+     * Accepts {@code 500ms}, {@code 30s}, {@code 2m} or an ISO-8601 duration.
+     */
+    static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.parse(value);
+    }
+}
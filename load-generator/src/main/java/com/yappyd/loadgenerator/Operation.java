@@ -0,0 +1,24 @@
+package com.yappyd.loadgenerator;
+
+/**
+ * One kind of request a scenario sends through the gateway. Results are reported per {@link #route()}.
+ */
+public enum Operation {
+    REGISTER("POST /auth/register"),
+    LOGIN("POST /auth/login"),
+    REFRESH("POST /auth/refresh"),
+    CREATE("POST /tasks/create"),
+    LIST("GET /tasks/list"),
+    UPDATE("PUT /tasks/{id}"),
+    DELETE("DELETE /tasks/{id}");
+
+    private final String route;
+
+    Operation(String route) {
+        this.route = route;
+    }
+
+    public String route() {
+        return route;
+    }
+}
@@ -0,0 +1,88 @@
+package com.yappyd.loadgenerator;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Response times of one route in microseconds, recorded concurrently from whichever threads complete its requests.
+ * Failed requests are counted by HTTP status, with 0 for requests that got no response. Requests that could not be sent
+ * because {@code max-in-flight} was reached are counted as dropped.
+ */
+public class RouteRecorder {
+    private final String route;
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final Map<Integer, LongAdder> errors = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    public RouteRecorder(String route) {
+        this.route = route;
+    }
+
+    public String route() {
+        return route;
+    }
+
+    public void record(long latencyNanos) {
+        latencies.recordValue(Math.max(1, latencyNanos / 1000));
+    }
+
+    public void recordError(int status) {
+        errors.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    public void recordDropped() {
+        dropped.increment();
+    }
+
+    public Histogram latencies() {
+        return latencies;
+    }
+
+    public long errors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public Map<Integer, Long> errorsByStatus() {
+        Map<Integer, Long> byStatus = new TreeMap<>();
+        errors.forEach((status, count) -> byStatus.put(status, count.sum()));
+        return byStatus;
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    public static void printHeader(PrintStream out) {
+        out.printf(Locale.ROOT, "%-22s %9s %7s %8s %9s %9s %9s %9s %9s %9s%n",
+                "route", "requests", "errors", "dropped", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    }
+
+    public void printRow(PrintStream out, double seconds) {
+        printRow(out, route, latencies, errors(), dropped(), seconds);
+    }
+
+    public static void printRow(PrintStream out, String route, Histogram latencies, long errors, long dropped, double seconds) {
+        long requests = latencies.getTotalCount();
+        out.printf(Locale.ROOT, "%-22s %9d %7d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                route, requests, errors, dropped, (requests + errors) / seconds,
+                latencies.getValueAtPercentile(50) / 1000.0, latencies.getValueAtPercentile(90) / 1000.0,
+                latencies.getValueAtPercentile(99) / 1000.0, latencies.getValueAtPercentile(99.9) / 1000.0,
+                latencies.getMaxValue() / 1000.0);
+    }
+
+    public void printErrors(PrintStream out) {
+        if (errors() > 0) {
+            out.println("errors " + route + ": " + errorsByStatus().entrySet().stream()
+                    .map(entry -> (entry.getKey() == 0 ? "no response" : "HTTP " + entry.getKey()) + " x" + entry.getValue())
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+}
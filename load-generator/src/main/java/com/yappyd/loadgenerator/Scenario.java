@@ -0,0 +1,38 @@
+package com.yappyd.loadgenerator;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Default operation mixes, as relative weights. {@code --mix} replaces them.
+ */
+public enum Scenario {
+    AUTH(Map.of(
+            Operation.REGISTER, 10,
+            Operation.LOGIN, 30,
+            Operation.REFRESH, 60)),
+    TASKS(Map.of(
+            Operation.CREATE, 20,
+            Operation.LIST, 50,
+            Operation.UPDATE, 20,
+            Operation.DELETE, 10)),
+    MIXED(Map.of(
+            Operation.REGISTER, 1,
+            Operation.LOGIN, 4,
+            Operation.REFRESH, 5,
+            Operation.CREATE, 18,
+            Operation.LIST, 48,
+            Operation.UPDATE, 16,
+            Operation.DELETE, 8));
+
+    private final Map<Operation, Integer> mix;
+
+    Scenario(Map<Operation, Integer> mix) {
+        this.mix = Collections.unmodifiableMap(new EnumMap<>(mix));
+    }
+
+    public Map<Operation, Integer> mix() {
+        return mix;
+    }
+}
@@ -0,0 +1,95 @@
+package com.yappyd.loadgenerator;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+public record ScenarioOptions(
+        URI target,
+        Scenario scenario,
+        Map<Operation, Integer> mix,
+        double rate,
+        boolean poisson,
+        int users,
+        int seedTasks,
+        int maxInFlight,
+        Duration warmup,
+        Duration duration,
+        Path histogramDir
+) {
+    public static ScenarioOptions parse(String[] args) {
+        URI target = URI.create("http://localhost:8080");
+        Scenario scenario = Scenario.MIXED;
+        Map<Operation, Integer> mix = null;
+        double rate = 100;
+        boolean poisson = false;
+        int users = 50;
+        int seedTasks = 5;
+        int maxInFlight = 2000;
+        Duration warmup = Duration.ofSeconds(10);
+        Duration duration = Duration.ofSeconds(60);
+        Path histogramDir = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + name);
+            }
+            String value = args[++i];
+            switch (name) {
+                case "--target" -> target = URI.create(value.endsWith("/") ? value.substring(0, value.length() - 1) : value);
+                case "--scenario" -> scenario = Scenario.valueOf(value.toUpperCase(Locale.ROOT));
+                case "--mix" -> mix = parseMix(value);
+                case "--rate" -> rate = Double.parseDouble(value);
+                case "--arrival" -> poisson = switch (value) {
+                    case "constant" -> false;
+                    case "poisson" -> true;
+                    default -> throw new IllegalArgumentException("--arrival must be constant or poisson");
+                };
+                case "--users" -> users = Integer.parseInt(value);
+                case "--seed-tasks" -> seedTasks = Integer.parseInt(value);
+                case "--max-in-flight" -> maxInFlight = Integer.parseInt(value);
+                case "--warmup" -> warmup = LoadOptions.parseDuration(value);
+                case "--duration" -> duration = LoadOptions.parseDuration(value);
+                case "--histogram-dir" -> histogramDir = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option " + name);
+            }
+        }
+        if (rate <= 0) {
+            throw new IllegalArgumentException("--rate must be positive");
+        }
+        if (users < 1) {
+            throw new IllegalArgumentException("--users must be positive");
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("--max-in-flight must be positive");
+        }
+        return new ScenarioOptions(target, scenario, mix != null ? mix : scenario.mix(), rate, poisson, users,
+                seedTasks, maxInFlight, warmup, duration, histogramDir);
+    }
+
+    /**
+     * Parses {@code login=3,refresh=7}: operation names with relative weights.
+     */
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            int separator = entry.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("--mix entries must look like operation=weight, got " + entry);
+            }
+            int weight = Integer.parseInt(entry.substring(separator + 1).trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("--mix weights must not be negative, got " + entry);
+            }
+            mix.put(Operation.valueOf(entry.substring(0, separator).trim().toUpperCase(Locale.ROOT)), weight);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("--mix needs at least one positive weight");
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,350 @@
+package com.yappyd.loadgenerator;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Open-loop load through the api-gateway: requests start at a fixed arrival rate whether or not earlier ones have
+ * completed, so a slow stack shows up as growing latency instead of a lower request rate. Each request's latency is
+ * measured from the time it was scheduled to start, not from when it was actually sent.
+ *
+ * <p>Before the run, {@code users} accounts are registered and each gets {@code seed-tasks} tasks. Every arrival then
+ * picks a user at random and an operation by the mix weights. Update and delete fall back to create when the user has
+ * no tasks left. Access tokens are only renewed by login and refresh, so runs longer than the access token lifetime
+ * need those in the mix.
+ *
+ * <pre>
+ * java -cp "load-generator/target/classes:$CLASSPATH" com.yappyd.loadgenerator.ScenarioRunner \
+ *     --target http://localhost:8080 --scenario tasks --rate 500 --warmup 10s --duration 60s
+ * </pre>
+ */
+public class ScenarioRunner {
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final String PASSWORD = "load-password";
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH"};
+
+    private final ScenarioOptions options;
+    private final HttpClient client;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong registrations = new AtomicLong();
+    private final List<VirtualUser> users = new ArrayList<>();
+    private final Map<Operation, RouteRecorder> recorders = new EnumMap<>(Operation.class);
+
+    public ScenarioRunner(ScenarioOptions options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new RouteRecorder(operation.route()));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        ScenarioOptions options;
+        try {
+            options = ScenarioOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: ScenarioRunner [--target http://localhost:8080] [--scenario auth|tasks|mixed]"
+                    + " [--mix create=2,list=5,...] [--rate 100] [--arrival constant|poisson] [--users 50]"
+                    + " [--seed-tasks 5] [--max-in-flight 2000] [--warmup 10s] [--duration 60s] [--histogram-dir DIR]");
+            System.exit(2);
+            return;
+        }
+        ScenarioRunner runner = new ScenarioRunner(options);
+        runner.setUp();
+        long maxLagNanos = runner.run();
+        runner.report(System.out, maxLagNanos);
+        if (options.histogramDir() != null) {
+            runner.writeHistograms();
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Registers the virtual users and seeds their tasks, a few users at a time.
+     */
+    public void setUp() throws InterruptedException {
+        ExecutorService setup = Executors.newFixedThreadPool(Math.min(options.users(), 16));
+        List<Future<VirtualUser>> created = new ArrayList<>();
+        for (int i = 0; i < options.users(); i++) {
+            String username = "lg-" + runId + "-" + i;
+            created.add(setup.submit(() -> createUser(username)));
+        }
+        try {
+            for (Future<VirtualUser> user : created) {
+                users.add(user.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Setting up virtual users failed", e.getCause());
+        } finally {
+            setup.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs warmup and measurement, waits for requests still in flight and returns how far behind schedule the
+     * dispatcher fell at worst.
+     */
+    public long run() throws InterruptedException {
+        Operation[] operations = options.mix().keySet().toArray(Operation[]::new);
+        int[] cumulativeWeights = new int[operations.length];
+        int totalWeight = 0;
+        for (int i = 0; i < operations.length; i++) {
+            totalWeight += options.mix().get(operations[i]);
+            cumulativeWeights[i] = totalWeight;
+        }
+
+        Random random = new Random();
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        double meanIntervalNanos = 1_000_000_000.0 / options.rate();
+        long warmup = options.warmup().toNanos();
+        long end = warmup + options.duration().toNanos();
+        long start = System.nanoTime();
+        long maxLag = 0;
+        // Offset of the next arrival from the start; a double so sub-nanosecond intervals do not drift.
+        double offset = 0;
+
+        while (offset < end) {
+            long scheduled = start + (long) offset;
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            maxLag = Math.max(maxLag, -wait);
+
+            int pick = random.nextInt(totalWeight);
+            int index = 0;
+            while (cumulativeWeights[index] <= pick) {
+                index++;
+            }
+            Operation operation = operations[index];
+            VirtualUser user = users.get(random.nextInt(users.size()));
+            boolean recorded = offset >= warmup;
+            if (inFlight.tryAcquire()) {
+                send(operation, user, random, scheduled, recorded).whenComplete((response, failure) -> inFlight.release());
+            } else if (recorded) {
+                recorders.get(operation).recordDropped();
+            }
+
+            offset += options.poisson()
+                    ? -Math.log(1 - random.nextDouble()) * meanIntervalNanos
+                    : meanIntervalNanos;
+        }
+
+        if (!inFlight.tryAcquire(options.maxInFlight(), 60, TimeUnit.SECONDS)) {
+            System.err.printf("%d requests still in flight after 60s, reporting without them%n",
+                    options.maxInFlight() - inFlight.availablePermits());
+        }
+        return maxLag;
+    }
+
+    public void report(PrintStream out, long maxLagNanos) {
+        double seconds = options.duration().toNanos() / 1_000_000_000.0;
+        out.printf(Locale.ROOT, "%s via %s: rate=%.1f/s %s arrivals, users=%d, warmup=%ss, duration=%ss, max dispatch lag=%.2f ms%n",
+                options.scenario(), options.target(), options.rate(), options.poisson() ? "poisson" : "constant",
+                options.users(), options.warmup().toSeconds(), options.duration().toSeconds(), maxLagNanos / 1_000_000.0);
+        if (!options.mix().equals(options.scenario().mix())) {
+            out.println("mix: " + options.mix().entrySet().stream()
+                    .map(entry -> entry.getKey().name().toLowerCase(Locale.ROOT) + "=" + entry.getValue())
+                    .collect(Collectors.joining(",")));
+        }
+        RouteRecorder.printHeader(out);
+
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        long totalDropped = 0;
+        for (RouteRecorder recorder : recorders.values()) {
+            if (recorder.latencies().getTotalCount() + recorder.errors() + recorder.dropped() == 0) {
+                continue;
+            }
+            recorder.printRow(out, seconds);
+            total.add(recorder.latencies());
+            totalErrors += recorder.errors();
+            totalDropped += recorder.dropped();
+        }
+        RouteRecorder.printRow(out, "total", total, totalErrors, totalDropped, seconds);
+        recorders.values().forEach(recorder -> recorder.printErrors(out));
+    }
+
+    /**
+     * Writes each route's full percentile distribution, in milliseconds, for plotting or comparing runs.
+     */
+    public void writeHistograms() throws IOException {
+        Files.createDirectories(options.histogramDir());
+        for (RouteRecorder recorder : recorders.values()) {
+            if (recorder.latencies().getTotalCount() == 0) {
+                continue;
+            }
+            String name = recorder.route().replaceAll("[^A-Za-z0-9]+", "-").replaceAll("^-|-$", "") + ".hgrm";
+            try (PrintStream out = new PrintStream(Files.newOutputStream(options.histogramDir().resolve(name)))) {
+                recorder.latencies().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(Operation operation, VirtualUser user, Random random,
+                                                         long scheduled, boolean recorded) {
+        Long taskId = switch (operation) {
+            case UPDATE -> user.tasks.peekLast();
+            case DELETE -> user.tasks.pollFirst();
+            default -> null;
+        };
+        Operation sent = (operation == Operation.UPDATE || operation == Operation.DELETE) && taskId == null
+                ? Operation.CREATE
+                : operation;
+        HttpRequest request = request(sent, user, taskId, random);
+        RouteRecorder recorder = recorders.get(sent);
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, failure) -> {
+            long latency = System.nanoTime() - scheduled;
+            boolean ok = failure == null && response.statusCode() < 400;
+            if (ok) {
+                try {
+                    onSuccess(sent, user, response.body());
+                } catch (RuntimeException e) {
+                    ok = false;
+                }
+            }
+            if (recorded) {
+                if (ok) {
+                    recorder.record(latency);
+                } else {
+                    recorder.recordError(failure == null ? response.statusCode() : 0);
+                }
+            }
+        });
+    }
+
+    private HttpRequest request(Operation operation, VirtualUser user, Long taskId, Random random) {
+        return switch (operation) {
+            case REGISTER -> post("/auth/register", credentials("lg-" + runId + "-r" + registrations.incrementAndGet()));
+            case LOGIN -> post("/auth/login", credentials(user.username));
+            case REFRESH -> post("/auth/refresh", "{\"refreshToken\":\"" + user.refreshToken + "\"}");
+            case CREATE -> authorized(builder("/tasks/create")
+                    .POST(HttpRequest.BodyPublishers.ofString(task(random))), user);
+            case LIST -> authorized(builder("/tasks/list?size=20").GET(), user);
+            case UPDATE -> authorized(builder("/tasks/" + taskId)
+                    .PUT(HttpRequest.BodyPublishers.ofString(
+                            "{\"priority\":\"" + PRIORITIES[random.nextInt(PRIORITIES.length)] + "\"}")), user);
+            case DELETE -> authorized(builder("/tasks/" + taskId).DELETE(), user);
+        };
+    }
+
+    private void onSuccess(Operation operation, VirtualUser user, String body) {
+        switch (operation) {
+            case LOGIN, REFRESH -> user.accessToken = stringField(body, "accessToken");
+            case CREATE -> {
+                Matcher id = ID.matcher(body);
+                if (id.find()) {
+                    user.tasks.addLast(Long.parseLong(id.group(1)));
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private VirtualUser createUser(String username) throws IOException, InterruptedException {
+        HttpResponse<String> registered = client.send(post("/auth/register", credentials(username)),
+                HttpResponse.BodyHandlers.ofString());
+        if (registered.statusCode() != 201) {
+            throw new IllegalStateException("Registering " + username + " failed with " + registered.statusCode()
+                    + ": " + registered.body());
+        }
+        VirtualUser user = new VirtualUser(username, stringField(registered.body(), "accessToken"),
+                stringField(registered.body(), "refreshToken"));
+        if (options.seedTasks() > 0) {
+            Random random = new Random();
+            String tasks = IntStream.range(0, options.seedTasks())
+                    .mapToObj(i -> task(random))
+                    .collect(Collectors.joining(",", "{\"tasks\":[", "]}"));
+            HttpResponse<String> seeded = client.send(authorized(builder("/tasks/batch")
+                    .POST(HttpRequest.BodyPublishers.ofString(tasks)), user), HttpResponse.BodyHandlers.ofString());
+            if (seeded.statusCode() != 201) {
+                throw new IllegalStateException("Seeding tasks for " + username + " failed with " + seeded.statusCode()
+                        + ": " + seeded.body());
+            }
+            Matcher id = ID.matcher(seeded.body());
+            while (id.find()) {
+                user.tasks.addLast(Long.parseLong(id.group(1)));
+            }
+        }
+        return user;
+    }
+
+    private HttpRequest.Builder builder(String path) {
+        return HttpRequest.newBuilder(URI.create(options.target() + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+    }
+
+    private HttpRequest post(String path, String body) {
+        return builder(path).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private static HttpRequest authorized(HttpRequest.Builder builder, VirtualUser user) {
+        return builder.header("Authorization", "Bearer " + user.accessToken).build();
+    }
+
+    private static String credentials(String username) {
+        return "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    private static String task(Random random) {
+        return "{\"title\":\"Load task " + random.nextInt(1_000_000) + "\",\"priority\":\""
+                + PRIORITIES[random.nextInt(PRIORITIES.length)] + "\",\"status\":\"TODO\",\"deadline\":\""
+                + LocalDate.now().plusDays(30 + random.nextInt(60)) + "\"}";
+    }
+
+    private static String stringField(String json, String name) {
+        Matcher matcher = Pattern.compile("\"" + name + "\"\\s*:\\s*\"([^\"]*)\"").matcher(json);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No " + name + " in response " + json);
+        }
+        return matcher.group(1);
+    }
+
+    private static final class VirtualUser {
+        private final String username;
+        private final String refreshToken;
+        private final ConcurrentLinkedDeque<Long> tasks = new ConcurrentLinkedDeque<>();
+        private volatile String accessToken;
+
+        private VirtualUser(String username, String accessToken, String refreshToken) {
+            this.username = username;
+            this.accessToken = accessToken;
+            this.refreshToken = refreshToken;
+        }
+    }
+}
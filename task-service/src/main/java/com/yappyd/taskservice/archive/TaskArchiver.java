@@ -0,0 +1,93 @@
+package com.yappyd.taskservice.archive;
+
+import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.event.TaskChangedEvent;
+import com.yappyd.taskservice.model.ArchivedTask;
+import com.yappyd.taskservice.model.Task;
+import com.yappyd.taskservice.repository.TaskRepository;
+import com.yappyd.taskservice.shard.ShardDirectory;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Moves tasks that have been {@code DONE} for longer than {@code task.archive.after} from the hot {@code task} table
+ * into {@code task_archive}, so the indexes every list and search query walks only hold live tasks. The table is
+ * worked through bucket by bucket on the bucket's composite index, in batches of {@code batch-size} that each
+ * commit on their own and hold the bucket only briefly against a shard migration. Archived tasks are published as
+ * {@link TaskChangedEvent#archived} and drop out of the search index, statistics and list caches.
+ */
+@Slf4j
+@Component
+public class TaskArchiver {
+    private final TaskRepository taskRepository;
+    private final ShardDirectory shardDirectory;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+    private final TransactionTemplate transaction;
+
+    @Value("${task.archive.after:30d}")
+    private Duration archiveAfter;
+
+    @Value("${task.archive.batch-size:500}")
+    private int batchSize;
+
+    public TaskArchiver(TaskRepository taskRepository, ShardDirectory shardDirectory, EntityManager entityManager,
+                        ApplicationEventPublisher eventPublisher, Clock clock, PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.shardDirectory = shardDirectory;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Returns the number of tasks archived.
+     */
+    @Scheduled(cron = "${task.archive.cron:0 30 * * * *}")
+    public long archive() {
+        long started = System.currentTimeMillis();
+        Instant completedBefore = clock.instant().minus(archiveAfter);
+        long archived = 0;
+        for (int bucket = 0; bucket < ShardDirectory.BUCKETS; bucket++) {
+            int moved;
+            do {
+                int current = bucket;
+                moved = shardDirectory.callForBucket(bucket, () -> transaction.execute(status -> archiveBatch(current, completedBefore)));
+                archived += moved;
+            } while (moved == batchSize);
+        }
+        if (archived > 0) {
+            log.info("Archived {} tasks completed before {} in {} ms", archived, completedBefore, System.currentTimeMillis() - started);
+        }
+        return archived;
+    }
+
+    private int archiveBatch(int bucket, Instant completedBefore) {
+        List<Task> tasks = taskRepository.deleteDoneBefore(bucket, completedBefore, batchSize);
+        Instant archivedAt = clock.instant();
+        for (Task task : tasks) {
+            entityManager.persist(ArchivedTask.of(task, archivedAt));
+            eventPublisher.publishEvent(TaskChangedEvent.archived(task.getUsername(), toResponse(task)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return tasks.size();
+    }
+
+    private static TaskResponse toResponse(Task task) {
+        return new TaskResponse(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(), task.getPriority(), task.getDeadline(), task.getVersion());
+    }
+}
@@ -0,0 +1,11 @@
+package com.yappyd.taskservice.cache;
+
+import java.util.List;
+
+public record TaskListCacheKey(
+        String username,
+        long version,
+        String method,
+        List<Object> arguments
+) {
+}
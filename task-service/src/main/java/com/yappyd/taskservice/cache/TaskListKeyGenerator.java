@@ -0,0 +1,30 @@
+package com.yappyd.taskservice.cache;
+
+import com.yappyd.taskservice.service.UserTaskVersions;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+@Component(TaskListKeyGenerator.NAME)
+public class TaskListKeyGenerator implements KeyGenerator {
+    public static final String NAME = "taskListKeyGenerator";
+
+    private final UserTaskVersions userTaskVersions;
+
+    public TaskListKeyGenerator(UserTaskVersions userTaskVersions) {
+        this.userTaskVersions = userTaskVersions;
+    }
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        String username = (String) params[0];
+        return new TaskListCacheKey(
+                username,
+                userTaskVersions.current(username),
+                method.getName(),
+                Arrays.asList(params).subList(1, params.length)
+        );
+    }
+}
@@ -0,0 +1,11 @@
+package com.yappyd.taskservice.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 2)
+public class CacheConfig {
+    public static final String TASK_LISTS = "task-lists";
+}
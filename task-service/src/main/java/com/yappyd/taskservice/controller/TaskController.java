@@ -1,29 +1,76 @@
 package com.yappyd.taskservice.controller;
 
+import com.yappyd.taskservice.dto.ArchivedTaskResponse;
+import com.yappyd.taskservice.dto.TaskBatchCreateRequest;
 import com.yappyd.taskservice.dto.TaskCreateRequest;
+import com.yappyd.taskservice.dto.TaskCursorPage;
+import com.yappyd.taskservice.dto.TaskFilter;
+import com.yappyd.taskservice.dto.TaskImportResponse;
 import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.dto.TaskStatsResponse;
+import com.yappyd.taskservice.dto.TaskSummaryResponse;
 import com.yappyd.taskservice.dto.TaskUpdateRequest;
+import com.yappyd.taskservice.service.TaskArchiveService;
+import com.yappyd.taskservice.service.TaskEventStreamService;
+import com.yappyd.taskservice.service.TaskExportService;
+import com.yappyd.taskservice.service.TaskGroupCommitter;
+import com.yappyd.taskservice.service.TaskImportService;
+import com.yappyd.taskservice.service.TaskImportService.ImportFormat;
+import com.yappyd.taskservice.service.TaskSearchService;
 import com.yappyd.taskservice.service.TaskService;
+import com.yappyd.taskservice.service.TaskStatisticsService;
+import com.yappyd.taskservice.service.UserTaskVersions;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
 @Slf4j
 @RestController
 @RequestMapping("/tasks")
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskExportService taskExportService;
+    private final TaskImportService taskImportService;
+    private final TaskSearchService taskSearchService;
+    private final TaskStatisticsService taskStatisticsService;
+    private final TaskEventStreamService taskEventStreamService;
+    private final TaskArchiveService taskArchiveService;
+    private final UserTaskVersions userTaskVersions;
+    // Null unless task.group-commit.enabled is set.
+    private final TaskGroupCommitter taskGroupCommitter;
 
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskExportService taskExportService, TaskImportService taskImportService,
+                          TaskSearchService taskSearchService, TaskStatisticsService taskStatisticsService,
+                          TaskEventStreamService taskEventStreamService, TaskArchiveService taskArchiveService,
+                          UserTaskVersions userTaskVersions, ObjectProvider<TaskGroupCommitter> taskGroupCommitter) {
         this.taskService = taskService;
+        this.taskExportService = taskExportService;
+        this.taskImportService = taskImportService;
+        this.taskSearchService = taskSearchService;
+        this.taskStatisticsService = taskStatisticsService;
+        this.taskEventStreamService = taskEventStreamService;
+        this.taskArchiveService = taskArchiveService;
+        this.userTaskVersions = userTaskVersions;
+        this.taskGroupCommitter = taskGroupCommitter.getIfAvailable();
     }
 
     @PostMapping("/create")
@@ -31,30 +78,178 @@ public class TaskController {
         String username = jwt.getSubject();
         log.debug("Task creating request for user: {}", username);
 
-        TaskResponse taskResponse = taskService.createTask(taskCreateRequest, username);
+        TaskResponse taskResponse = taskGroupCommitter != null
+                ? taskGroupCommitter.await(taskGroupCommitter.createTask(taskCreateRequest, username))
+                : taskService.createTask(taskCreateRequest, username);
         log.debug("Created taskId {} response for user: {}", taskResponse.id(), username);
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(taskResponse);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(versionTag(taskResponse)).body(taskResponse);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<TaskResponse>> createTasks(@Valid @RequestBody TaskBatchCreateRequest batchCreateRequest, @AuthenticationPrincipal Jwt jwt) {
+        String username = jwt.getSubject();
+        log.debug("Batch task creating request of {} tasks for user: {}", batchCreateRequest.tasks().size(), username);
+
+        List<TaskResponse> taskResponses = taskService.createTasks(batchCreateRequest.tasks(), username);
+        log.debug("Created {} tasks response for user: {}", taskResponses.size(), username);
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(taskResponses);
     }
 
     @GetMapping("/list")
-    public ResponseEntity<Page<TaskResponse>> getTasks(@AuthenticationPrincipal @PageableDefault(size = 10, sort = "deadline") Jwt jwt, Pageable pageable) {
+    public ResponseEntity<Page<TaskResponse>> getTasks(TaskFilter filter, @AuthenticationPrincipal Jwt jwt,
+                                                       @PageableDefault(size = 10, sort = "deadline") Pageable pageable,
+                                                       WebRequest webRequest) {
         String username = jwt.getSubject();
         log.debug("Fetching tasks request for user: {}", username);
 
-        Page<TaskResponse> tasks = taskService.getTasks(username, pageable);
+        String etag = userTaskVersions.etag(username);
+        if (webRequest.checkNotModified(etag)) {
+            log.debug("Tasks not modified for user: {}", username);
+            return notModified(etag);
+        }
+
+        Page<TaskResponse> tasks = taskService.getTasks(username, filter, pageable);
         log.debug("Fetched {} tasks response for user: {}", tasks.getSize(), username);
 
+        return revalidated(etag, tasks);
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<Page<TaskSummaryResponse>> getTaskSummaries(TaskFilter filter, @AuthenticationPrincipal Jwt jwt,
+                                                                      @PageableDefault(size = 10, sort = "deadline") Pageable pageable,
+                                                                      WebRequest webRequest) {
+        String username = jwt.getSubject();
+        log.debug("Fetching task summaries request for user: {}", username);
+
+        String etag = userTaskVersions.etag(username);
+        if (webRequest.checkNotModified(etag)) {
+            log.debug("Task summaries not modified for user: {}", username);
+            return notModified(etag);
+        }
+
+        Page<TaskSummaryResponse> summaries = taskService.getTaskSummaries(username, filter, pageable);
+        log.debug("Fetched {} task summaries response for user: {}", summaries.getSize(), username);
+
+        return revalidated(etag, summaries);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<TaskStatsResponse> getStats(@AuthenticationPrincipal Jwt jwt) {
+        String username = jwt.getSubject();
+        log.debug("Fetching task stats request for user: {}", username);
+
+        return ResponseEntity.ok(taskStatisticsService.getStats(username));
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                   @AuthenticationPrincipal Jwt jwt) {
+        String username = jwt.getSubject();
+        log.debug("Task events subscription request for user: {}", username);
+
+        return taskEventStreamService.subscribe(username, lastEventId);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<TaskResponse> getTask(@PathVariable("id") Long id, @AuthenticationPrincipal Jwt jwt) {
+        String username = jwt.getSubject();
+        log.debug("Fetching taskId {} request for user: {}", id, username);
+
+        TaskResponse task = taskService.getTask(id, username);
+        return ResponseEntity.ok().eTag(versionTag(task)).body(task);
+    }
+
+    @GetMapping(value = "/list", params = "after")
+    public ResponseEntity<TaskCursorPage> getTasksAfter(@RequestParam("after") String after,
+                                                        @RequestParam(value = "size", defaultValue = "10") int size,
+                                                        @AuthenticationPrincipal Jwt jwt, WebRequest webRequest) {
+        String username = jwt.getSubject();
+        log.debug("Fetching tasks after cursor request for user: {}", username);
+
+        String etag = userTaskVersions.etag(username);
+        if (webRequest.checkNotModified(etag)) {
+            log.debug("Tasks after cursor not modified for user: {}", username);
+            return notModified(etag);
+        }
+
+        TaskCursorPage tasks = taskService.getTasksAfter(username, after, size);
+        log.debug("Fetched {} tasks after cursor response for user: {}", tasks.content().size(), username);
+
+        return revalidated(etag, tasks);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<TaskResponse>> searchTasks(@RequestParam("q") String query,
+                                                          @RequestParam(value = "limit", defaultValue = "20") int limit,
+                                                          @AuthenticationPrincipal Jwt jwt) {
+        String username = jwt.getSubject();
+        log.debug("Searching tasks request for user: {}", username);
+
+        List<TaskResponse> tasks = taskSearchService.searchTasks(username, query, limit);
+        log.debug("Found {} tasks response for user: {}", tasks.size(), username);
+
         return ResponseEntity.ok(tasks);
     }
 
+    @GetMapping("/archive")
+    public ResponseEntity<Page<ArchivedTaskResponse>> getArchivedTasks(@RequestParam(value = "page", defaultValue = "0") int page,
+                                                                       @RequestParam(value = "size", defaultValue = "10") int size,
+                                                                       @AuthenticationPrincipal Jwt jwt) {
+        String username = jwt.getSubject();
+        log.debug("Fetching archived tasks request for user: {}", username);
+
+        Page<ArchivedTaskResponse> tasks = taskArchiveService.getArchivedTasks(username, page, size);
+        log.debug("Fetched {} archived tasks response for user: {}", tasks.getNumberOfElements(), username);
+
+        return ResponseEntity.ok(tasks);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasks(@AuthenticationPrincipal Jwt jwt) {
+        String username = jwt.getSubject();
+        log.debug("Exporting tasks request for user: {}", username);
+
+        StreamingResponseBody body = outputStream -> {
+            long exported = taskExportService.exportTasks(username, outputStream);
+            log.debug("Exported {} tasks response for user: {}", exported, username);
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<TaskImportResponse> importNdjsonTasks(InputStream body, @AuthenticationPrincipal Jwt jwt) throws IOException {
+        return importTasks(body, ImportFormat.NDJSON, jwt.getSubject());
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<TaskImportResponse> importCsvTasks(InputStream body, @AuthenticationPrincipal Jwt jwt) throws IOException {
+        return importTasks(body, ImportFormat.CSV, jwt.getSubject());
+    }
+
+    private ResponseEntity<TaskImportResponse> importTasks(InputStream body, ImportFormat format, String username) throws IOException {
+        log.debug("Importing {} tasks request for user: {}", format, username);
+
+        TaskImportResponse response = taskImportService.importTasks(body, format, username);
+        log.debug("Imported {} tasks response for user: {}", response.imported(), username);
+
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<TaskResponse> updateTask(@PathVariable("id") Long id, @Valid @RequestBody TaskUpdateRequest updateRequest, @AuthenticationPrincipal Jwt jwt) {
+    public ResponseEntity<TaskResponse> updateTask(@PathVariable("id") Long id, @Valid @RequestBody TaskUpdateRequest updateRequest,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                   @AuthenticationPrincipal Jwt jwt) {
         String username = jwt.getSubject();
         log.debug("Updating taskId {} request for user: {}", id, username);
 
-        TaskResponse updatedTask = taskService.updateTask(id, updateRequest, username);
-        return ResponseEntity.ok(updatedTask);
+        TaskResponse updatedTask = taskGroupCommitter != null
+                ? taskGroupCommitter.await(taskGroupCommitter.updateTask(id, updateRequest, username, expectedVersion(ifMatch)))
+                : taskService.updateTask(id, updateRequest, username, expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(versionTag(updatedTask)).body(updatedTask);
     }
 
     @DeleteMapping("/{id}")
@@ -68,4 +263,35 @@ public class TaskController {
         return ResponseEntity.noContent().build();
     }
 
+    // The version is read before the query, so a write racing the read can only make the tag older than the body.
+    private static <T> ResponseEntity<T> revalidated(String etag, T body) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).body(body);
+    }
+
+    private static String versionTag(TaskResponse task) {
+        return "\"" + task.version() + "\"";
+    }
+
+    /**
+     * Version named by an {@code If-Match} header, or {@code null} for none or {@code *}. If-Match compares strongly,
+     * so a weak or foreign tag can never match and maps to a version no task has.
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).build();
+    }
 }
@@ -0,0 +1,17 @@
+package com.yappyd.taskservice.dto;
+
+import com.yappyd.taskservice.model.Task.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+public record ArchivedTaskResponse(
+        Long id,
+        String title,
+        String description,
+        TaskPriority priority,
+        LocalDate deadline,
+        Instant completedAt,
+        Instant archivedAt
+) {
+}
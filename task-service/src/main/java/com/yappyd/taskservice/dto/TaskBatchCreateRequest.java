@@ -0,0 +1,15 @@
+package com.yappyd.taskservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record TaskBatchCreateRequest(
+        @NotEmpty (message = "Tasks must not be empty")
+        @Size(max = 1000, message = "At most 1000 tasks can be created at once")
+        List<@Valid @NotNull TaskCreateRequest> tasks
+) {
+}
@@ -0,0 +1,14 @@
+package com.yappyd.taskservice.dto;
+
+import com.yappyd.taskservice.model.Task.*;
+
+import java.time.LocalDate;
+
+public record TaskCountRow(
+        String username,
+        TaskStatus status,
+        TaskPriority priority,
+        LocalDate deadline,
+        long count
+) {
+}
@@ -0,0 +1,9 @@
+package com.yappyd.taskservice.dto;
+
+import java.util.List;
+
+public record TaskCursorPage(
+        List<TaskResponse> content,
+        String nextCursor
+) {
+}
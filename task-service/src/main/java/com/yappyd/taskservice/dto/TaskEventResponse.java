@@ -0,0 +1,10 @@
+package com.yappyd.taskservice.dto;
+
+import com.yappyd.taskservice.event.TaskChangedEvent.ChangeType;
+
+public record TaskEventResponse(
+        ChangeType type,
+        Long taskId,
+        TaskResponse task
+) {
+}
@@ -0,0 +1,18 @@
+package com.yappyd.taskservice.dto;
+
+import com.yappyd.taskservice.model.Task.TaskPriority;
+import com.yappyd.taskservice.model.Task.TaskStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+public record TaskFilter(
+        TaskStatus status,
+        TaskPriority priority,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        LocalDate deadlineFrom,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        LocalDate deadlineTo
+) {
+    public static final TaskFilter NONE = new TaskFilter(null, null, null, null);
+}
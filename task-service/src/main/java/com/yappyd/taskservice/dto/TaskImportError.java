@@ -0,0 +1,7 @@
+package com.yappyd.taskservice.dto;
+
+public record TaskImportError(
+        long line,
+        String message
+) {
+}
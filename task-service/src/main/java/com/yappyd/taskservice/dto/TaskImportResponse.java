@@ -0,0 +1,10 @@
+package com.yappyd.taskservice.dto;
+
+import java.util.List;
+
+public record TaskImportResponse(
+        long imported,
+        long failed,
+        List<TaskImportError> errors
+) {
+}
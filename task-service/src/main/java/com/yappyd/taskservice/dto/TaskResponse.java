@@ -10,6 +10,7 @@ public record TaskResponse(
         String description,
         TaskStatus status,
         TaskPriority priority,
-        LocalDate deadline
+        LocalDate deadline,
+        Long version
 ) {
 }
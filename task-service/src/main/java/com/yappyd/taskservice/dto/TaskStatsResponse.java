@@ -0,0 +1,13 @@
+package com.yappyd.taskservice.dto;
+
+import com.yappyd.taskservice.model.Task.*;
+
+import java.util.Map;
+
+public record TaskStatsResponse(
+        long total,
+        Map<TaskStatus, Long> byStatus,
+        Map<TaskPriority, Long> byPriority,
+        long overdue
+) {
+}
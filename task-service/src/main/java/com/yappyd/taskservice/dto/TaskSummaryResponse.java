@@ -0,0 +1,14 @@
+package com.yappyd.taskservice.dto;
+
+import com.yappyd.taskservice.model.Task.*;
+
+import java.time.LocalDate;
+
+public record TaskSummaryResponse(
+        Long id,
+        String title,
+        TaskStatus status,
+        TaskPriority priority,
+        LocalDate deadline
+) {
+}
@@ -0,0 +1,37 @@
+package com.yappyd.taskservice.event;
+
+import com.yappyd.taskservice.dto.TaskResponse;
+
+public record TaskChangedEvent(
+        ChangeType type,
+        String username,
+        TaskResponse previous,
+        TaskResponse current
+) {
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED, ARCHIVED
+    }
+
+    public static TaskChangedEvent created(String username, TaskResponse current) {
+        return new TaskChangedEvent(ChangeType.CREATED, username, null, current);
+    }
+
+    public static TaskChangedEvent updated(String username, TaskResponse previous, TaskResponse current) {
+        return new TaskChangedEvent(ChangeType.UPDATED, username, previous, current);
+    }
+
+    public static TaskChangedEvent deleted(String username, TaskResponse previous) {
+        return new TaskChangedEvent(ChangeType.DELETED, username, previous, null);
+    }
+
+    /**
+     * The task left the hot table for the archive; to everything kept in sync with the table it is gone.
+     */
+    public static TaskChangedEvent archived(String username, TaskResponse previous) {
+        return new TaskChangedEvent(ChangeType.ARCHIVED, username, previous, null);
+    }
+
+    public Long taskId() {
+        return current != null ? current.id() : previous.id();
+    }
+}
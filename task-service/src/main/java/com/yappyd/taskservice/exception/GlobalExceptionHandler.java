@@ -39,6 +39,58 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.FORBIDDEN);
     }
 
+    @ExceptionHandler(TaskVersionConflictException.class)
+    public ResponseEntity<ErrorResponse> handleTaskVersionConflictException(TaskVersionConflictException ex) {
+        log.warn("Stale task update: {}", ex.getMessage());
+
+        ErrorResponse error = new ErrorResponse(
+                "Precondition failed",
+                ex.getMessage(),
+                HttpStatus.PRECONDITION_FAILED.value()
+        );
+
+        return new ResponseEntity<>(error, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursorException(InvalidCursorException ex) {
+        log.warn("Invalid cursor: {}", ex.getMessage());
+
+        ErrorResponse error = new ErrorResponse(
+                "Invalid cursor",
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST.value()
+        );
+
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidSortPropertyException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidSortPropertyException(InvalidSortPropertyException ex) {
+        log.warn("Invalid sort property: {}", ex.getMessage());
+
+        ErrorResponse error = new ErrorResponse(
+                "Invalid sort property",
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST.value()
+        );
+
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidImportException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidImportException(InvalidImportException ex) {
+        log.warn("Invalid import: {}", ex.getMessage());
+
+        ErrorResponse error = new ErrorResponse(
+                "Invalid import",
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST.value()
+        );
+
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException ex) {
         StringBuilder details = new StringBuilder();
@@ -0,0 +1,7 @@
+package com.yappyd.taskservice.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String cursor) {
+        super("Cursor '" + cursor + "' is invalid.");
+    }
+}
@@ -0,0 +1,7 @@
+package com.yappyd.taskservice.exception;
+
+public class InvalidImportException extends RuntimeException {
+    public InvalidImportException(String message) {
+        super("Import is invalid: " + message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.yappyd.taskservice.exception;
+
+public class InvalidSortPropertyException extends RuntimeException {
+    public InvalidSortPropertyException(String property) {
+        super("Tasks cannot be sorted by '" + property + "'.");
+    }
+}
@@ -0,0 +1,7 @@
+package com.yappyd.taskservice.exception;
+
+public class TaskVersionConflictException extends RuntimeException {
+    public TaskVersionConflictException(String taskId, long expectedVersion) {
+        super("Task with id '" + taskId + "' is no longer at version " + expectedVersion + ".");
+    }
+}
@@ -0,0 +1,129 @@
+package com.yappyd.taskservice.jdbc;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Counts the JDBC statements each HTTP request runs, to catch N+1 queries and repeated lookups. Requests running more
+ * than {@code task.query.request-warn-threshold} statements are logged. With {@code task.query.count-header} on, as
+ * in the dev profile, responses carry the count so far in {@code X-Query-Count} and the time spent in
+ * {@code X-Query-Time-Ms}; the headers are set when the response starts, so a streamed response only reports the
+ * statements run before its first byte.
+ * <p>
+ * Metrics: {@code task.request.queries} records the statement count per request, tagged by method and URI pattern.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryCountFilter extends OncePerRequestFilter {
+    public static final String COUNT_HEADER = "X-Query-Count";
+    public static final String TIME_HEADER = "X-Query-Time-Ms";
+
+    private final QueryRecorder queryRecorder;
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+    private final boolean countHeader;
+
+    public QueryCountFilter(QueryRecorder queryRecorder, MeterRegistry meterRegistry,
+                            @Value("${task.query.request-warn-threshold:20}") int warnThreshold,
+                            @Value("${task.query.count-header:false}") boolean countHeader) {
+        this.queryRecorder = queryRecorder;
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+        this.countHeader = countHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (QueryRecorder.RequestQueries queries = queryRecorder.startRequest()) {
+            filterChain.doFilter(request, countHeader ? new CountingResponse(response, queries) : response);
+
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            DistributionSummary.builder("task.request.queries")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(1000.0)
+                    .register(meterRegistry)
+                    .record(queries.count());
+            if (queries.count() > warnThreshold) {
+                log.warn("{} {} ran {} statements in {} ms", request.getMethod(), uri, queries.count(), queries.time().toMillis());
+            }
+        }
+    }
+
+    /**
+     * Adds the query headers on the first write, flush or error, the last points before the headers are sent.
+     */
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+        private final QueryRecorder.RequestQueries queries;
+        private boolean headersAdded;
+
+        private CountingResponse(HttpServletResponse response, QueryRecorder.RequestQueries queries) {
+            super(response);
+            this.queries = queries;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addHeaders();
+            super.sendRedirect(location);
+        }
+
+        private void addHeaders() {
+            if (!headersAdded && !isCommitted()) {
+                headersAdded = true;
+                setHeader(COUNT_HEADER, Integer.toString(queries.count()));
+                setHeader(TIME_HEADER, Long.toString(queries.time().toMillis()));
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.yappyd.taskservice.jdbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Receives every JDBC statement run through a {@link QueryRecordingDataSource}. Statements slower than
+ * {@code task.query.slow-threshold} are logged as prepared, with placeholders instead of bound values. Statements run
+ * on a thread inside {@link #startRequest()} are also counted towards that request.
+ * <p>
+ * Metrics: {@code task.query} times each statement, tagged by its {@code type} (select, insert, update, delete or
+ * other), and {@code task.query.slow} counts the slow ones.
+ */
+@Slf4j
+@Component
+public class QueryRecorder {
+    private static final int MAX_LOGGED_SQL_LENGTH = 2000;
+
+    private final ThreadLocal<RequestQueries> currentRequest = new ThreadLocal<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Counter slowQueries;
+    private final long slowThresholdNanos;
+
+    public QueryRecorder(MeterRegistry meterRegistry, @Value("${task.query.slow-threshold:100ms}") Duration slowThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowQueries = meterRegistry.counter("task.query.slow");
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    /**
+     * Counts the statements this thread runs until the returned counter is closed.
+     */
+    public RequestQueries startRequest() {
+        RequestQueries queries = new RequestQueries();
+        currentRequest.set(queries);
+        return queries;
+    }
+
+    void record(String sql, long nanos) {
+        timers.computeIfAbsent(type(sql), type -> Timer.builder("task.query")
+                        .tag("type", type)
+                        .publishPercentileHistogram()
+                        .maximumExpectedValue(Duration.ofSeconds(10))
+                        .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+        RequestQueries queries = currentRequest.get();
+        if (queries != null) {
+            queries.count++;
+            queries.nanos += nanos;
+        }
+        if (nanos >= slowThresholdNanos) {
+            slowQueries.increment();
+            log.warn("Slow query took {} ms: {}", TimeUnit.NANOSECONDS.toMillis(nanos), loggable(sql));
+        }
+    }
+
+    private static String type(String sql) {
+        if (sql == null) {
+            return "other";
+        }
+        String statement = sql.stripLeading();
+        int end = 0;
+        while (end < statement.length() && Character.isLetter(statement.charAt(end))) {
+            end++;
+        }
+        return switch (statement.substring(0, end).toLowerCase(Locale.ROOT)) {
+            case "select", "with" -> "select";
+            case "insert" -> "insert";
+            case "update" -> "update";
+            case "delete" -> "delete";
+            default -> "other";
+        };
+    }
+
+    private static String loggable(String sql) {
+        if (sql == null) {
+            return "<batch>";
+        }
+        String oneLine = sql.strip().replaceAll("\\s+", " ");
+        return oneLine.length() > MAX_LOGGED_SQL_LENGTH ? oneLine.substring(0, MAX_LOGGED_SQL_LENGTH) + "..." : oneLine;
+    }
+
+    /**
+     * Statements of one request so far. Statements the request hands to other threads, e.g. the group commit writer,
+     * are not included.
+     */
+    public final class RequestQueries implements AutoCloseable {
+        private int count;
+        private long nanos;
+
+        private RequestQueries() {
+        }
+
+        public int count() {
+            return count;
+        }
+
+        public Duration time() {
+            return Duration.ofNanos(nanos);
+        }
+
+        @Override
+        public void close() {
+            currentRequest.remove();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.yappyd.taskservice.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Hands out connections whose statements report each execution, with its SQL and duration, to a
+ * {@link QueryRecorder}. A batch counts as one statement. Closing it closes the wrapped pool.
+ */
+public class QueryRecordingDataSource extends DelegatingDataSource implements Closeable {
+    private final QueryRecorder queryRecorder;
+
+    public QueryRecordingDataSource(DataSource targetDataSource, QueryRecorder queryRecorder) {
+        super(targetDataSource);
+        this.queryRecorder = queryRecorder;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(super.getConnection(username, password));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (obtainTargetDataSource() instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection connection(Connection target) {
+        return proxy(Connection.class, target, (method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                // prepareStatement and prepareCall take the SQL up front; createStatement gets it on execute.
+                String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                return statement(method.getReturnType().asSubclass(Statement.class), statement, sql);
+            }
+            return result;
+        });
+    }
+
+    private <S extends Statement> S statement(Class<S> type, Statement target, String preparedSql) {
+        return proxy(type, target, (method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(target, method, args);
+            }
+            String sql = preparedSql != null ? preparedSql : args != null && args[0] instanceof String text ? text : null;
+            long started = System.nanoTime();
+            try {
+                return invoke(target, method, args);
+            } finally {
+                queryRecorder.record(sql, System.nanoTime() - started);
+            }
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(QueryRecordingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "Recorded " + target;
+                    default -> handler.handle(method, args);
+                }));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Method method, Object[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,64 @@
+package com.yappyd.taskservice.model;
+
+import com.yappyd.taskservice.model.Task.*;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * A completed task moved out of the hot {@code task} table by {@link com.yappyd.taskservice.archive.TaskArchiver}.
+ * Rows are written once and never updated.
+ */
+@Entity
+@Immutable
+@Table(name = "task_archive", indexes = {
+        @Index(name = "idx_task_archive_username_completed_at_id", columnList = "username, completed_at, id"),
+        @Index(name = "idx_task_archive_bucket", columnList = "bucket")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+public class ArchivedTask {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Integer bucket;
+
+    @Column(nullable = false, length = 50)
+    private String username;
+
+    @Column(nullable = false, length = 200)
+    private String title;
+
+    @Column(columnDefinition = "text")
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskPriority priority;
+
+    private LocalDate deadline;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(nullable = false)
+    private Instant completedAt;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+
+    public static ArchivedTask of(Task task, Instant archivedAt) {
+        return new ArchivedTask(task.getId(), task.getBucket(), task.getUsername(), task.getTitle(), task.getDescription(),
+                task.getStatus(), task.getPriority(), task.getDeadline(), task.getVersion(), task.getCompletedAt(), archivedAt);
+    }
+}
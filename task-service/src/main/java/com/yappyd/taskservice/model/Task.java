@@ -1,11 +1,20 @@
 package com.yappyd.taskservice.model;
 
+import com.yappyd.taskservice.shard.ShardDirectory;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_task_username_deadline_id", columnList = "username, deadline, id"),
+        @Index(name = "idx_task_username_status_deadline", columnList = "username, status, deadline"),
+        @Index(name = "idx_task_username_priority_deadline", columnList = "username, priority, deadline"),
+        @Index(name = "idx_task_deadline", columnList = "deadline"),
+        @Index(name = "idx_task_bucket_status_completed_at", columnList = "bucket, status, completed_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -14,13 +23,18 @@ import java.time.LocalDate;
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     @Setter(AccessLevel.NONE)
     private Long id;
 
     @Column(nullable = false, length = 50)
     private String username;
 
+    @Column(nullable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private Integer bucket;
+
     @Column(nullable = false, length = 200)
     private String title;
 
@@ -37,6 +51,24 @@ public class Task {
 
     private LocalDate deadline;
 
+    /**
+     * When the task was last moved to {@link TaskStatus#DONE}, or {@code null} while it is open. Taken from the
+     * application {@link java.time.Clock}, on create and in
+     * {@link com.yappyd.taskservice.repository.TaskRepository#updateIfOwned}.
+     */
+    @Setter(AccessLevel.NONE)
+    private Instant completedAt;
+
+    @Version
+    @Column(nullable = false)
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
+    @PrePersist
+    void beforePersist() {
+        bucket = ShardDirectory.bucketOf(username);
+    }
+
     public enum TaskPriority {
         LOW, MEDIUM, HIGH
     }
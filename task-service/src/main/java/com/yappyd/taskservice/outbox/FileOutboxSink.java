@@ -0,0 +1,43 @@
+package com.yappyd.taskservice.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends each batch to an NDJSON file with a single write.
+ */
+@Component
+@ConditionalOnProperty(name = "task.outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+    private final ObjectMapper objectMapper;
+
+    @Value("${task.outbox.file:task-events.ndjson}")
+    private Path file;
+
+    public FileOutboxSink(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        try {
+            StringBuilder lines = new StringBuilder();
+            for (OutboxMessage message : messages) {
+                lines.append(objectMapper.writeValueAsString(message)).append('\n');
+            }
+            Files.write(file, lines.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write task events to " + file, e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.yappyd.taskservice.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Component
+@ConditionalOnProperty(name = "task.outbox.sink", havingValue = "memory")
+public class InMemoryOutboxSink implements OutboxSink {
+    private final List<OutboxMessage> messages = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        this.messages.addAll(messages);
+    }
+
+    public List<OutboxMessage> getMessages() {
+        return List.copyOf(messages);
+    }
+
+    public void clear() {
+        messages.clear();
+    }
+}
@@ -0,0 +1,20 @@
+package com.yappyd.taskservice.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "task.outbox.sink", havingValue = "log", matchIfMissing = true)
+public class LoggingOutboxSink implements OutboxSink {
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        for (OutboxMessage message : messages) {
+            log.debug("Task event {} for user {}: taskId {} {}", message.id(), message.username(), message.taskId(), message.type());
+        }
+    }
+}
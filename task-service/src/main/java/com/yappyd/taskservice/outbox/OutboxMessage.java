@@ -0,0 +1,20 @@
+package com.yappyd.taskservice.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.yappyd.taskservice.event.TaskChangedEvent.ChangeType;
+
+import java.time.Instant;
+
+/**
+ * A task change as recorded in the outbox. {@code id} increases per shard in insertion order; {@code payload} is
+ * the JSON of the {@link com.yappyd.taskservice.event.TaskChangedEvent}.
+ */
+public record OutboxMessage(
+        long id,
+        String username,
+        long taskId,
+        ChangeType type,
+        @JsonRawValue String payload,
+        Instant createdAt
+) {
+}
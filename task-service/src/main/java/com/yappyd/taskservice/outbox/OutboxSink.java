@@ -0,0 +1,12 @@
+package com.yappyd.taskservice.outbox;
+
+import java.util.List;
+
+/**
+ * Receives drained outbox messages, a batch at a time and in outbox order per shard. Delivery is at least once: a
+ * batch is only removed from the outbox after {@code publish} returns, so a failure or crash redelivers it.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxMessage> messages);
+}
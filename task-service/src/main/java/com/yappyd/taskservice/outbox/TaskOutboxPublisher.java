@@ -0,0 +1,156 @@
+package com.yappyd.taskservice.outbox;
+
+import com.yappyd.taskservice.event.TaskChangedEvent.ChangeType;
+import com.yappyd.taskservice.shard.ShardContext;
+import com.yappyd.taskservice.shard.ShardDataSources;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Drains {@code task_outbox} on every shard into the {@link OutboxSink}, oldest first and {@code batch-size} rows at
+ * a time, deleting each batch once the sink has accepted it. A failing sink leaves the batch in place and the shard
+ * is retried on the next poll.
+ * <p>
+ * Each batch is read, published and deleted in one transaction that holds the row lock of the shard's
+ * {@code task_outbox_lock}, taken with {@code SKIP LOCKED}: while one instance drains a shard, the others skip it, so
+ * a batch is not delivered by two instances at once and messages stay in order.
+ * <p>
+ * Metrics: {@code task.outbox.published} counts delivered messages, {@code task.outbox.publish.failures} failed
+ * batches, {@code task.outbox.batch} times each delivery and {@code task.outbox.lag} records how long each message
+ * waited between commit and delivery. {@code task.outbox.oldest.age} is the age in seconds of the oldest message
+ * still waiting, as of the last poll, so it keeps growing while the sink is down.
+ */
+@Slf4j
+@Component
+public class TaskOutboxPublisher {
+    private final ShardDataSources shardDataSources;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final OutboxSink outboxSink;
+    private final Clock clock;
+    private final AtomicReferenceArray<Instant> oldestPending;
+    private final Counter published;
+    private final Counter failures;
+    private final Timer batchTimer;
+    private final Timer lag;
+
+    @Value("${task.outbox.batch-size:500}")
+    private int batchSize;
+
+    public TaskOutboxPublisher(ShardDataSources shardDataSources, DataSource dataSource, PlatformTransactionManager transactionManager,
+                               OutboxSink outboxSink, Clock clock, MeterRegistry meterRegistry) {
+        this.shardDataSources = shardDataSources;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.outboxSink = outboxSink;
+        this.clock = clock;
+        this.oldestPending = new AtomicReferenceArray<>(shardDataSources.size());
+        this.published = meterRegistry.counter("task.outbox.published");
+        this.failures = meterRegistry.counter("task.outbox.publish.failures");
+        this.batchTimer = meterRegistry.timer("task.outbox.batch");
+        this.lag = meterRegistry.timer("task.outbox.lag");
+        Gauge.builder("task.outbox.oldest.age", this, TaskOutboxPublisher::oldestPendingSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the number of messages published.
+     */
+    @Scheduled(fixedDelayString = "${task.outbox.poll-interval:200ms}")
+    public long drain() {
+        long total = 0;
+        for (int shard = 0; shard < shardDataSources.size(); shard++) {
+            int current = shard;
+            total += ShardContext.callOn(shard, () -> drain(current));
+        }
+        return total;
+    }
+
+    private long drain(int shard) {
+        long drained = 0;
+        while (true) {
+            List<OutboxMessage> batch;
+            try {
+                batch = transaction.execute(status -> publishBatch(shard));
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("Failed to publish task events from shard {}, retrying on the next poll", shard, e);
+                return drained;
+            }
+            if (batch == null) {
+                log.debug("Outbox of shard {} is being drained by another instance", shard);
+                return drained;
+            }
+            if (batch.isEmpty()) {
+                oldestPending.set(shard, null);
+                return drained;
+            }
+
+            Instant now = clock.instant();
+            batch.forEach(message -> lag.record(Duration.between(message.createdAt(), now)));
+            published.increment(batch.size());
+            drained += batch.size();
+            if (batch.size() < batchSize) {
+                oldestPending.set(shard, null);
+                return drained;
+            }
+        }
+    }
+
+    /**
+     * Returns the published batch, or {@code null} if another instance holds the shard's outbox lock.
+     */
+    private List<OutboxMessage> publishBatch(int shard) {
+        List<Integer> lock = jdbcTemplate.queryForList("SELECT id FROM task_outbox_lock FOR UPDATE SKIP LOCKED", Integer.class);
+        if (lock.isEmpty()) {
+            return null;
+        }
+        List<OutboxMessage> batch = jdbcTemplate.query(
+                "SELECT id, username, task_id, type, payload, created_at FROM task_outbox ORDER BY id FETCH FIRST ? ROWS ONLY",
+                (rs, rowNum) -> new OutboxMessage(
+                        rs.getLong("id"),
+                        rs.getString("username"),
+                        rs.getLong("task_id"),
+                        ChangeType.valueOf(rs.getString("type")),
+                        rs.getString("payload"),
+                        rs.getObject("created_at", OffsetDateTime.class).toInstant()),
+                batchSize);
+        if (batch.isEmpty()) {
+            return batch;
+        }
+        oldestPending.set(shard, batch.get(0).createdAt());
+        batchTimer.record(() -> outboxSink.publish(batch));
+        jdbcTemplate.batchUpdate("DELETE FROM task_outbox WHERE id = ?", batch.stream().map(message -> new Object[]{message.id()}).toList());
+        return batch;
+    }
+
+    private double oldestPendingSeconds() {
+        Instant oldest = null;
+        for (int shard = 0; shard < oldestPending.length(); shard++) {
+            Instant pending = oldestPending.get(shard);
+            if (pending != null && (oldest == null || pending.isBefore(oldest))) {
+                oldest = pending;
+            }
+        }
+        return oldest == null ? 0 : Duration.between(oldest, clock.instant()).toMillis() / 1000.0;
+    }
+}
@@ -0,0 +1,43 @@
+package com.yappyd.taskservice.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yappyd.taskservice.event.TaskChangedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.ZoneOffset;
+
+/**
+ * Records every {@link TaskChangedEvent} in {@code task_outbox} just before the transaction that caused it commits,
+ * on the same connection, so a change and its outbox row are committed or rolled back together. Events published
+ * outside a transaction are not recorded; every task write publishes them inside its own.
+ */
+@Component
+public class TaskOutboxWriter {
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    public TaskOutboxWriter(DataSource dataSource, ObjectMapper objectMapper, Clock clock) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onTaskChanged(TaskChangedEvent event) {
+        try {
+            jdbcTemplate.update("INSERT INTO task_outbox (username, task_id, type, payload, created_at) VALUES (?, ?, ?, ?, ?)",
+                    event.username(), event.taskId(), event.type().name(), objectMapper.writeValueAsString(event),
+                    clock.instant().atOffset(ZoneOffset.UTC));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Failed to serialize task event for taskId " + event.taskId(), e);
+        }
+    }
+}
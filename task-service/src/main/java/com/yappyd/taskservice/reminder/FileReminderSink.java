@@ -0,0 +1,41 @@
+package com.yappyd.taskservice.reminder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+@ConditionalOnProperty(name = "task.reminders.sink", havingValue = "file")
+public class FileReminderSink implements ReminderSink {
+    private final ObjectMapper objectMapper;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    @Value("${task.reminders.file:reminders.ndjson}")
+    private Path file;
+
+    public FileReminderSink(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void remind(TaskReminder reminder) {
+        writeLock.lock();
+        try {
+            byte[] line = (objectMapper.writeValueAsString(reminder) + "\n").getBytes(StandardCharsets.UTF_8);
+            Files.write(file, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write reminder to " + file, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.yappyd.taskservice.reminder;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Component
+@ConditionalOnProperty(name = "task.reminders.sink", havingValue = "memory")
+public class InMemoryReminderSink implements ReminderSink {
+    private final List<TaskReminder> reminders = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void remind(TaskReminder reminder) {
+        reminders.add(reminder);
+    }
+
+    public List<TaskReminder> getReminders() {
+        return List.copyOf(reminders);
+    }
+
+    public void clear() {
+        reminders.clear();
+    }
+}
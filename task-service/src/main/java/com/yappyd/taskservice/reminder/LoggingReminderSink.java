@@ -0,0 +1,17 @@
+package com.yappyd.taskservice.reminder;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "task.reminders.sink", havingValue = "log", matchIfMissing = true)
+public class LoggingReminderSink implements ReminderSink {
+
+    @Override
+    public void remind(TaskReminder reminder) {
+        log.info("Reminder for user {}: taskId {} '{}' is due on {}",
+                reminder.username(), reminder.taskId(), reminder.title(), reminder.deadline());
+    }
+}
@@ -0,0 +1,69 @@
+package com.yappyd.taskservice.reminder;
+
+import com.yappyd.taskservice.model.Task.*;
+import com.yappyd.taskservice.shard.ShardContext;
+import com.yappyd.taskservice.shard.ShardDirectory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Every instance keeps its own reminder wheel, fed only by the changes made through it. Before a reminder from the
+ * wheel is delivered, its task is read again on its shard and the reminder is recorded in {@code task_reminder_sent} in
+ * the same transaction, so each reminder goes out once across instances and never for a task that has since been
+ * deleted, completed or moved to another deadline elsewhere.
+ */
+@Component
+class ReminderClaims {
+    private final ShardDirectory shardDirectory;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+
+    ReminderClaims(ShardDirectory shardDirectory, DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.shardDirectory = shardDirectory;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Returns the reminder as its task stands now, claimed for this instance if it is due through {@code dueThrough};
+     * null if the task is gone, done or no longer has a deadline, or another instance already claimed it.
+     */
+    TaskReminder claim(TaskReminder reminder, LocalDate dueThrough) {
+        try {
+            return shardDirectory.callFor(reminder.username(), () -> transaction.execute(status -> {
+                List<TaskReminder> tasks = jdbcTemplate.query("SELECT title, deadline FROM task " +
+                                "WHERE id = ? AND username = ? AND status <> ? AND deadline IS NOT NULL",
+                        (rs, row) -> new TaskReminder(reminder.taskId(), reminder.username(), rs.getString("title"),
+                                rs.getObject("deadline", LocalDate.class)),
+                        reminder.taskId(), reminder.username(), TaskStatus.DONE.name());
+                if (tasks.isEmpty()) {
+                    return null;
+                }
+                TaskReminder current = tasks.get(0);
+                if (!current.deadline().isAfter(dueThrough)) {
+                    jdbcTemplate.update("INSERT INTO task_reminder_sent (task_id, deadline, bucket) VALUES (?, ?, ?)",
+                            current.taskId(), current.deadline(), ShardDirectory.bucketOf(current.username()));
+                }
+                return current;
+            }));
+        } catch (DuplicateKeyException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Drops the claims of deadlines before {@code date}; no wheel holds those reminders any more.
+     */
+    void forgetBefore(LocalDate date) {
+        for (int shard : shardDirectory.shards()) {
+            ShardContext.callOn(shard, () -> jdbcTemplate.update("DELETE FROM task_reminder_sent WHERE deadline < ?", date));
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.yappyd.taskservice.reminder;
+
+public interface ReminderSink {
+
+    void remind(TaskReminder reminder);
+}
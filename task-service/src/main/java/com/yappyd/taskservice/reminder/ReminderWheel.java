@@ -0,0 +1,65 @@
+package com.yappyd.taskservice.reminder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+class ReminderWheel {
+    private final NavigableMap<LocalDate, Map<Long, TaskReminder>> buckets = new TreeMap<>();
+    private final Map<Long, LocalDate> deadlines = new HashMap<>();
+
+    void schedule(TaskReminder reminder) {
+        cancel(reminder.taskId());
+        buckets.computeIfAbsent(reminder.deadline(), deadline -> new LinkedHashMap<>()).put(reminder.taskId(), reminder);
+        deadlines.put(reminder.taskId(), reminder.deadline());
+    }
+
+    void cancel(Long taskId) {
+        LocalDate deadline = deadlines.remove(taskId);
+        if (deadline == null) {
+            return;
+        }
+        Map<Long, TaskReminder> bucket = buckets.get(deadline);
+        bucket.remove(taskId);
+        if (bucket.isEmpty()) {
+            buckets.remove(deadline);
+        }
+    }
+
+    LocalDate nextDeadline() {
+        return buckets.isEmpty() ? null : buckets.firstKey();
+    }
+
+    List<TaskReminder> pollThrough(LocalDate deadline) {
+        List<TaskReminder> due = new ArrayList<>();
+        Map<LocalDate, Map<Long, TaskReminder>> head = buckets.headMap(deadline, true);
+        for (Map<Long, TaskReminder> bucket : head.values()) {
+            for (TaskReminder reminder : bucket.values()) {
+                deadlines.remove(reminder.taskId());
+                due.add(reminder);
+            }
+        }
+        head.clear();
+        return due;
+    }
+
+    // Drops whole days from the far end; returns the earliest dropped deadline, or null if nothing was dropped.
+    LocalDate trimTo(int maxSize) {
+        LocalDate dropped = null;
+        while (deadlines.size() > maxSize && buckets.size() > 1) {
+            Map.Entry<LocalDate, Map<Long, TaskReminder>> last = buckets.pollLastEntry();
+            last.getValue().keySet().forEach(deadlines::remove);
+            dropped = last.getKey();
+        }
+        return dropped;
+    }
+
+    int size() {
+        return deadlines.size();
+    }
+}
@@ -0,0 +1,11 @@
+package com.yappyd.taskservice.reminder;
+
+import java.time.LocalDate;
+
+public record TaskReminder(
+        Long taskId,
+        String username,
+        String title,
+        LocalDate deadline
+) {
+}
@@ -0,0 +1,238 @@
+package com.yappyd.taskservice.reminder;
+
+import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.event.TaskChangedEvent;
+import com.yappyd.taskservice.model.Task.*;
+import com.yappyd.taskservice.repository.TaskRepository;
+import com.yappyd.taskservice.shard.ShardDirectory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+public class TaskReminderScheduler {
+    private final TaskRepository taskRepository;
+    private final ShardDirectory shardDirectory;
+    private final ReminderSink reminderSink;
+    private final ReminderClaims reminderClaims;
+    private final TaskScheduler taskScheduler;
+    private final Clock clock;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${task.reminders.lead-days:1}")
+    private int leadDays;
+
+    @Value("${task.reminders.horizon-days:7}")
+    private int horizonDays;
+
+    @Value("${task.reminders.max-pending:100000}")
+    private int maxPending;
+
+    private final Object wheelLock = new Object();
+    // Held across the window query, so a lock that parks rather than pins a virtual thread's carrier.
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final ReminderWheel wheel = new ReminderWheel();
+    private LocalDate loadedThrough;
+    private List<TaskChangedEvent> eventsDuringLoad;
+    private ScheduledFuture<?> timer;
+    private Instant timerAt;
+
+    public TaskReminderScheduler(TaskRepository taskRepository, ShardDirectory shardDirectory, ReminderSink reminderSink,
+                                 ReminderClaims reminderClaims, TaskScheduler taskScheduler, Clock clock,
+                                 PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.shardDirectory = shardDirectory;
+        this.reminderSink = reminderSink;
+        this.reminderClaims = reminderClaims;
+        this.taskScheduler = taskScheduler;
+        this.clock = clock;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Scheduled(cron = "${task.reminders.extend-cron:0 0 0 * * *}")
+    public void extendWindow() {
+        loadLock.lock();
+        try {
+            LocalDate today = LocalDate.now(clock);
+            LocalDate from;
+            synchronized (wheelLock) {
+                from = loadedThrough == null || loadedThrough.isBefore(today) ? today : loadedThrough.plusDays(1);
+                eventsDuringLoad = new ArrayList<>();
+            }
+            LocalDate through = today.plusDays(horizonDays);
+            List<TaskReminder> loaded = from.isAfter(through) ? List.of() : load(from, through);
+            if (loaded.size() > maxPending) {
+                // Only whole days can be held, so stop the window before the day the cap cut through.
+                LocalDate cut = loaded.get(maxPending).deadline();
+                loaded = loaded.stream().filter(reminder -> reminder.deadline().isBefore(cut)).toList();
+                if (loaded.isEmpty()) {
+                    log.warn("More than {} task reminders are due on {}, skipping that day", maxPending, cut);
+                    through = cut;
+                } else {
+                    through = cut.minusDays(1);
+                }
+            }
+
+            synchronized (wheelLock) {
+                loaded.forEach(wheel::schedule);
+                loadedThrough = through;
+                trim();
+                eventsDuringLoad.forEach(this::apply);
+                eventsDuringLoad = null;
+                rearm();
+            }
+            if (!loaded.isEmpty()) {
+                log.info("Loaded {} task reminders with deadlines from {} to {}", loaded.size(), from, through);
+            }
+            try {
+                reminderClaims.forgetBefore(today);
+            } catch (RuntimeException e) {
+                log.warn("Failed to drop reminder claims before {}", today, e);
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        synchronized (wheelLock) {
+            if (eventsDuringLoad != null) {
+                eventsDuringLoad.add(event);
+            }
+            apply(event);
+            rearm();
+        }
+    }
+
+    public int pendingCount() {
+        synchronized (wheelLock) {
+            return wheel.size();
+        }
+    }
+
+    void fire() {
+        List<TaskReminder> due;
+        LocalDate dueThrough;
+        boolean windowShort;
+        synchronized (wheelLock) {
+            timer = null;
+            timerAt = null;
+            LocalDate today = LocalDate.now(clock);
+            dueThrough = today.plusDays(leadDays);
+            due = wheel.pollThrough(dueThrough);
+            windowShort = loadedThrough != null && loadedThrough.isBefore(today.plusDays(horizonDays));
+            rearm();
+        }
+        for (TaskReminder reminder : due) {
+            try {
+                TaskReminder current = reminderClaims.claim(reminder, dueThrough);
+                if (current == null) {
+                    continue;
+                }
+                if (current.deadline().isAfter(dueThrough)) {
+                    reschedule(current);
+                    continue;
+                }
+                reminderSink.remind(current);
+            } catch (RuntimeException e) {
+                log.warn("Failed to deliver reminder for taskId {}", reminder.taskId(), e);
+            }
+        }
+        if (windowShort) {
+            extendWindow();
+        }
+    }
+
+    /**
+     * Loads bucket by bucket, so a bucket that moves meanwhile is read once, on its owner. One reminder past the cap
+     * tells us where the window has to stop.
+     */
+    private List<TaskReminder> load(LocalDate from, LocalDate through) {
+        int kept = maxPending + 1;
+        List<TaskReminder> loaded = new ArrayList<>();
+        LocalDate until = through;
+        for (int bucket : shardDirectory.buckets()) {
+            LocalDate upTo = until;
+            loaded.addAll(shardDirectory.callForBucket(bucket, () -> readOnlyTransaction.execute(status -> {
+                try (Stream<TaskReminder> reminders = taskRepository.streamReminders(bucket, from, upTo, TaskStatus.DONE)) {
+                    return reminders.limit(kept).toList();
+                }
+            })));
+            if (loaded.size() > 2 * kept) {
+                trimToCap(loaded, kept);
+                // Only reminders due no later than the last one kept can still make it in.
+                until = loaded.get(kept - 1).deadline();
+            }
+        }
+        trimToCap(loaded, kept);
+        return loaded;
+    }
+
+    private static void trimToCap(List<TaskReminder> loaded, int kept) {
+        loaded.sort(Comparator.comparing(TaskReminder::deadline).thenComparing(TaskReminder::taskId));
+        if (loaded.size() > kept) {
+            loaded.subList(kept, loaded.size()).clear();
+        }
+    }
+
+    private void apply(TaskChangedEvent event) {
+        wheel.cancel(event.taskId());
+        TaskResponse task = event.current();
+        if (task == null || task.deadline() == null || task.status() == TaskStatus.DONE || loadedThrough == null) {
+            return;
+        }
+        if (!task.deadline().isAfter(loadedThrough) && !task.deadline().isBefore(LocalDate.now(clock))) {
+            wheel.schedule(new TaskReminder(task.id(), event.username(), task.title(), task.deadline()));
+            trim();
+        }
+    }
+
+    // Another instance moved the deadline, so this wheel never saw the change.
+    private void reschedule(TaskReminder reminder) {
+        synchronized (wheelLock) {
+            if (loadedThrough != null && !reminder.deadline().isAfter(loadedThrough)) {
+                wheel.schedule(reminder);
+                trim();
+                rearm();
+            }
+        }
+    }
+
+    private void trim() {
+        LocalDate dropped = wheel.trimTo(maxPending);
+        if (dropped != null) {
+            loadedThrough = dropped.minusDays(1);
+        }
+    }
+
+    private void rearm() {
+        LocalDate next = wheel.nextDeadline();
+        Instant at = next == null ? null : next.minusDays(leadDays).atStartOfDay(clock.getZone()).toInstant();
+        if (at != null && at.equals(timerAt)) {
+            return;
+        }
+        if (timer != null) {
+            timer.cancel(false);
+        }
+        timer = at == null ? null : taskScheduler.schedule(this::fire, at);
+        timerAt = at;
+    }
+}
@@ -0,0 +1,18 @@
+package com.yappyd.taskservice.repository;
+
+import com.yappyd.taskservice.dto.ArchivedTaskResponse;
+import com.yappyd.taskservice.model.ArchivedTask;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+
+    @Query(value = "SELECT new com.yappyd.taskservice.dto.ArchivedTaskResponse(a.id, a.title, a.description, a.priority, " +
+            "a.deadline, a.completedAt, a.archivedAt) " +
+            "FROM ArchivedTask a WHERE a.username = :username ORDER BY a.completedAt DESC, a.id DESC",
+            countQuery = "SELECT COUNT(a) FROM ArchivedTask a WHERE a.username = :username")
+    Page<ArchivedTaskResponse> findResponsesByUsername(@Param("username") String username, Pageable pageable);
+}
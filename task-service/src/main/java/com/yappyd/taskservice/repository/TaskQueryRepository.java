@@ -0,0 +1,17 @@
+package com.yappyd.taskservice.repository;
+
+import com.yappyd.taskservice.dto.TaskFilter;
+import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.dto.TaskSummaryResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface TaskQueryRepository {
+    Page<TaskResponse> findResponses(String username, TaskFilter filter, Pageable pageable);
+    Page<TaskSummaryResponse> findSummaries(String username, TaskFilter filter, Pageable pageable);
+
+    /**
+     * Looks on every shard, since the task may belong to a user routed elsewhere.
+     */
+    boolean existsById(Long id);
+}
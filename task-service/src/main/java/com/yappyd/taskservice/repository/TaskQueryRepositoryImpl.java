@@ -0,0 +1,121 @@
+package com.yappyd.taskservice.repository;
+
+import com.yappyd.taskservice.dto.TaskFilter;
+import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.dto.TaskSummaryResponse;
+import com.yappyd.taskservice.exception.InvalidSortPropertyException;
+import com.yappyd.taskservice.model.Task;
+import com.yappyd.taskservice.shard.ShardDataSources;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public class TaskQueryRepositoryImpl implements TaskQueryRepository {
+    private static final List<String> RESPONSE_ATTRIBUTES = List.of("id", "title", "description", "status", "priority", "deadline", "version");
+    private static final List<String> SUMMARY_ATTRIBUTES = List.of("id", "title", "status", "priority", "deadline");
+    private static final Set<String> SORTABLE_ATTRIBUTES = Set.of("id", "title", "status", "priority", "deadline");
+
+    private final EntityManager entityManager;
+    private final ShardDataSources shardDataSources;
+
+    public TaskQueryRepositoryImpl(EntityManager entityManager, ShardDataSources shardDataSources) {
+        this.entityManager = entityManager;
+        this.shardDataSources = shardDataSources;
+    }
+
+    @Override
+    public Page<TaskResponse> findResponses(String username, TaskFilter filter, Pageable pageable) {
+        return findPage(TaskResponse.class, RESPONSE_ATTRIBUTES, username, filter, pageable);
+    }
+
+    @Override
+    public Page<TaskSummaryResponse> findSummaries(String username, TaskFilter filter, Pageable pageable) {
+        return findPage(TaskSummaryResponse.class, SUMMARY_ATTRIBUTES, username, filter, pageable);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        for (int shard = 0; shard < shardDataSources.size(); shard++) {
+            List<Integer> found = new JdbcTemplate(shardDataSources.get(shard))
+                    .queryForList("SELECT 1 FROM task WHERE id = ?", Integer.class, id);
+            if (!found.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <R> Page<R> findPage(Class<R> type, List<String> attributes, String username, TaskFilter filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = cb.createQuery(type);
+        Root<Task> task = query.from(Task.class);
+        query.select(cb.construct(type, attributes.stream().map(task::get).toArray(Selection[]::new)))
+                .where(predicates(cb, task, username, filter))
+                .orderBy(orders(cb, task, pageable.getSort()));
+
+        TypedQuery<R> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable, () -> count(username, filter));
+    }
+
+    private long count(String username, TaskFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Task> task = query.from(Task.class);
+        query.select(cb.count(task)).where(predicates(cb, task, username, filter));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Predicate[] predicates(CriteriaBuilder cb, Root<Task> task, String username, TaskFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(task.get("username"), username));
+        if (filter.status() != null) {
+            predicates.add(cb.equal(task.get("status"), filter.status()));
+        }
+        if (filter.priority() != null) {
+            predicates.add(cb.equal(task.get("priority"), filter.priority()));
+        }
+        if (filter.deadlineFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(task.get("deadline"), filter.deadlineFrom()));
+        }
+        if (filter.deadlineTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(task.get("deadline"), filter.deadlineTo()));
+        }
+        return predicates.toArray(Predicate[]::new);
+    }
+
+    private static List<Order> orders(CriteriaBuilder cb, Root<Task> task, Sort sort) {
+        List<Order> orders = new ArrayList<>();
+        boolean sortedById = false;
+        for (Sort.Order order : sort) {
+            if (!SORTABLE_ATTRIBUTES.contains(order.getProperty())) {
+                throw new InvalidSortPropertyException(order.getProperty());
+            }
+            orders.add(order.isAscending()
+                    ? cb.asc(task.get(order.getProperty()))
+                    : cb.desc(task.get(order.getProperty())));
+            sortedById |= order.getProperty().equals("id");
+        }
+        if (!sortedById) {
+            orders.add(cb.asc(task.get("id")));
+        }
+        return orders;
+    }
+}
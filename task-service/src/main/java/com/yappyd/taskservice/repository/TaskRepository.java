@@ -1,12 +1,113 @@
 package com.yappyd.taskservice.repository;
 
+import com.yappyd.taskservice.dto.TaskCountRow;
+import com.yappyd.taskservice.dto.TaskResponse;
 import com.yappyd.taskservice.model.Task;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import com.yappyd.taskservice.reminder.TaskReminder;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskQueryRepository {
     boolean existsById(Long id);
-    Page<Task> findByUsername(String username, Pageable pageable);
     void deleteById(Long id);
+
+    @Query("SELECT new com.yappyd.taskservice.dto.TaskResponse(t.id, t.title, t.description, t.status, t.priority, t.deadline, t.version) " +
+            "FROM Task t WHERE t.id = :id AND t.username = :username")
+    Optional<TaskResponse> findResponseByIdAndUsername(@Param("id") Long id, @Param("username") String username);
+
+    @Query("SELECT t FROM Task t WHERE t.username = :username ORDER BY t.deadline ASC NULLS FIRST, t.id ASC")
+    List<Task> findFirstKeysetPage(@Param("username") String username, Limit limit);
+
+    @Query("SELECT t FROM Task t WHERE t.username = :username AND t.deadline IS NULL AND t.id > :id ORDER BY t.id ASC")
+    List<Task> findUndatedAfter(@Param("username") String username, @Param("id") Long id, Limit limit);
+
+    @Query("SELECT t FROM Task t WHERE t.username = :username AND t.deadline IS NOT NULL ORDER BY t.deadline ASC, t.id ASC")
+    List<Task> findFirstDated(@Param("username") String username, Limit limit);
+
+    @Query("SELECT t FROM Task t WHERE t.username = :username " +
+            "AND (t.deadline > :deadline OR (t.deadline = :deadline AND t.id > :id)) " +
+            "ORDER BY t.deadline ASC, t.id ASC")
+    List<Task> findDatedAfter(@Param("username") String username, @Param("deadline") LocalDate deadline,
+                              @Param("id") Long id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT t FROM Task t WHERE t.username = :username ORDER BY t.id ASC")
+    Stream<Task> streamByUsername(@Param("username") String username);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT t FROM Task t WHERE t.bucket = :bucket")
+    Stream<Task> streamByBucket(@Param("bucket") int bucket);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.yappyd.taskservice.dto.TaskCountRow(t.username, t.status, t.priority, t.deadline, COUNT(t)) " +
+            "FROM Task t WHERE t.bucket = :bucket GROUP BY t.username, t.status, t.priority, t.deadline")
+    Stream<TaskCountRow> streamCounts(@Param("bucket") int bucket);
+
+    @Query("SELECT new com.yappyd.taskservice.dto.TaskCountRow(t.username, t.status, t.priority, t.deadline, COUNT(t)) " +
+            "FROM Task t WHERE t.username = :username GROUP BY t.username, t.status, t.priority, t.deadline")
+    List<TaskCountRow> findCountsByUsername(@Param("username") String username);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.yappyd.taskservice.reminder.TaskReminder(t.id, t.username, t.title, t.deadline) FROM Task t " +
+            "WHERE t.bucket = :bucket AND t.deadline BETWEEN :from AND :through AND t.status <> :excludedStatus " +
+            "ORDER BY t.deadline, t.id")
+    Stream<TaskReminder> streamReminders(@Param("bucket") int bucket, @Param("from") LocalDate from,
+                                         @Param("through") LocalDate through,
+                                         @Param("excludedStatus") Task.TaskStatus excludedStatus);
+
+    @Query(value = "SELECT * FROM OLD TABLE (UPDATE task SET " +
+            "title = COALESCE(:title, title), " +
+            "description = COALESCE(:description, description), " +
+            "priority = COALESCE(:priority, priority), " +
+            "status = COALESCE(:status, status), " +
+            "deadline = COALESCE(:deadline, deadline), " +
+            "completed_at = CASE WHEN COALESCE(:status, status) <> 'DONE' THEN NULL " +
+            "WHEN status = 'DONE' THEN completed_at ELSE CAST(:now AS TIMESTAMP WITH TIME ZONE) END, " +
+            "version = version + :increments " +
+            "WHERE id = :id AND username = :username " +
+            "AND (CAST(:expectedVersion AS BIGINT) IS NULL OR version = :expectedVersion))", nativeQuery = true)
+    Optional<Task> updateIfOwned(@Param("id") Long id, @Param("username") String username,
+                                 @Param("title") String title, @Param("description") String description,
+                                 @Param("priority") String priority, @Param("status") String status,
+                                 @Param("deadline") LocalDate deadline, @Param("expectedVersion") Long expectedVersion,
+                                 @Param("now") Instant now, @Param("increments") int increments);
+
+    /**
+     * A single update; the group-commit writer folds several updates of one task into a statement with more
+     * {@code increments}, keeping the version equal to the number of updates applied.
+     */
+    default Optional<Task> updateIfOwned(Long id, String username, String title, String description, String priority,
+                                         String status, LocalDate deadline, Long expectedVersion, Instant now) {
+        return updateIfOwned(id, username, title, description, priority, status, deadline, expectedVersion, now, 1);
+    }
+
+    boolean existsByIdAndUsername(Long id, String username);
+
+    @Query(value = "SELECT * FROM OLD TABLE (DELETE FROM task " +
+            "WHERE bucket = :bucket AND status = 'DONE' AND completed_at < :completedBefore " +
+            "FETCH FIRST :limit ROWS ONLY)", nativeQuery = true)
+    List<Task> deleteDoneBefore(@Param("bucket") int bucket, @Param("completedBefore") Instant completedBefore,
+                                @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM OLD TABLE (DELETE FROM task WHERE id = :id AND username = :username)", nativeQuery = true)
+    Optional<Task> deleteIfOwned(@Param("id") Long id, @Param("username") String username);
 }
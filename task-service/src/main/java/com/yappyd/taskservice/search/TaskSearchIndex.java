@@ -0,0 +1,135 @@
+package com.yappyd.taskservice.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+@Component
+public class TaskSearchIndex {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int TITLE_WEIGHT = 2;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final ConcurrentMap<String, UserIndex> users = new ConcurrentHashMap<>();
+
+    public void index(String username, Long taskId, String title, String description) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        for (String token : tokenize(title)) {
+            frequencies.merge(token, TITLE_WEIGHT, Integer::sum);
+            length += TITLE_WEIGHT;
+        }
+        for (String token : tokenize(description)) {
+            frequencies.merge(token, 1, Integer::sum);
+            length++;
+        }
+        users.computeIfAbsent(username, key -> new UserIndex()).put(taskId, frequencies, length);
+    }
+
+    public void remove(String username, Long taskId) {
+        UserIndex index = users.get(username);
+        if (index != null) {
+            index.remove(taskId);
+        }
+    }
+
+    public List<Long> search(String username, String query, int limit) {
+        UserIndex index = users.get(username);
+        List<String> terms = List.copyOf(new LinkedHashSet<>(tokenize(query)));
+        if (index == null || terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return index.search(terms, limit);
+    }
+
+    public void clear() {
+        users.clear();
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private record Document(String[] terms, int length) {
+    }
+
+    private record ScoredTask(Long taskId, double score) {
+    }
+
+    private static final class UserIndex {
+        private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+        private final Map<Long, Document> documents = new HashMap<>();
+        private long totalLength;
+
+        synchronized void put(Long taskId, Map<String, Integer> frequencies, int length) {
+            remove(taskId);
+            frequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, key -> new HashMap<>()).put(taskId, frequency));
+            documents.put(taskId, new Document(frequencies.keySet().toArray(String[]::new), length));
+            totalLength += length;
+        }
+
+        synchronized void remove(Long taskId) {
+            Document document = documents.remove(taskId);
+            if (document == null) {
+                return;
+            }
+            totalLength -= document.length();
+            for (String term : document.terms()) {
+                Map<Long, Integer> posting = postings.get(term);
+                posting.remove(taskId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+
+        synchronized List<Long> search(List<String> terms, int limit) {
+            int documentCount = documents.size();
+            if (documentCount == 0) {
+                return List.of();
+            }
+            double averageLength = Math.max(1.0, (double) totalLength / documentCount);
+
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                posting.forEach((taskId, frequency) -> {
+                    double normalization = K1 * (1 - B + B * documents.get(taskId).length() / averageLength);
+                    scores.merge(taskId, idf * frequency * (K1 + 1) / (frequency + normalization), Double::sum);
+                });
+            }
+
+            return scores.entrySet().stream()
+                    .map(entry -> new ScoredTask(entry.getKey(), entry.getValue()))
+                    .sorted(Comparator.comparingDouble(ScoredTask::score).reversed()
+                            .thenComparing(ScoredTask::taskId))
+                    .limit(limit)
+                    .map(ScoredTask::taskId)
+                    .toList();
+        }
+    }
+}
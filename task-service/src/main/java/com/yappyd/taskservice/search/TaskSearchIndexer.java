@@ -0,0 +1,89 @@
+package com.yappyd.taskservice.search;
+
+import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.event.TaskChangedEvent;
+import com.yappyd.taskservice.model.Task;
+import com.yappyd.taskservice.repository.TaskRepository;
+import com.yappyd.taskservice.shard.ShardDirectory;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+public class TaskSearchIndexer {
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskRepository taskRepository;
+    private final ShardDirectory shardDirectory;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Object eventLock = new Object();
+    private List<TaskChangedEvent> eventsDuringRebuild;
+
+    public TaskSearchIndexer(TaskSearchIndex taskSearchIndex, TaskRepository taskRepository, ShardDirectory shardDirectory,
+                             EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.taskSearchIndex = taskSearchIndex;
+        this.taskRepository = taskRepository;
+        this.shardDirectory = shardDirectory;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void rebuild() {
+        log.info("Rebuilding task search index");
+        long started = System.currentTimeMillis();
+
+        synchronized (eventLock) {
+            eventsDuringRebuild = new ArrayList<>();
+        }
+        taskSearchIndex.clear();
+        long indexed = 0;
+        // Bucket by bucket, so a bucket that moves meanwhile is read once, on its owner; indexing is idempotent if retried.
+        for (int bucket : shardDirectory.buckets()) {
+            indexed += shardDirectory.callForBucket(bucket, () -> readOnlyTransaction.execute(status -> {
+                long count = 0;
+                try (Stream<Task> tasks = taskRepository.streamByBucket(bucket)) {
+                    for (Task task : (Iterable<Task>) tasks::iterator) {
+                        taskSearchIndex.index(task.getUsername(), task.getId(), task.getTitle(), task.getDescription());
+                        count++;
+                        entityManager.detach(task);
+                    }
+                }
+                return count;
+            }));
+        }
+        synchronized (eventLock) {
+            eventsDuringRebuild.forEach(this::apply);
+            eventsDuringRebuild = null;
+        }
+        log.info("Rebuilt task search index with {} tasks in {} ms", indexed, System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        synchronized (eventLock) {
+            if (eventsDuringRebuild != null) {
+                eventsDuringRebuild.add(event);
+            }
+            apply(event);
+        }
+    }
+
+    private void apply(TaskChangedEvent event) {
+        TaskResponse task = event.current();
+        if (task == null) {
+            taskSearchIndex.remove(event.username(), event.taskId());
+        } else {
+            taskSearchIndex.index(event.username(), task.id(), task.title(), task.description());
+        }
+    }
+}
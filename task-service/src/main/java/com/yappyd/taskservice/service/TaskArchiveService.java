@@ -0,0 +1,38 @@
+package com.yappyd.taskservice.service;
+
+import com.yappyd.taskservice.dto.ArchivedTaskResponse;
+import com.yappyd.taskservice.repository.ArchivedTaskRepository;
+import com.yappyd.taskservice.shard.ShardKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reads the cold archive of completed tasks, most recently completed first. The regular list, search and export
+ * paths never look here.
+ */
+@Slf4j
+@Service
+public class TaskArchiveService {
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ArchivedTaskRepository archivedTaskRepository;
+
+    public TaskArchiveService(ArchivedTaskRepository archivedTaskRepository) {
+        this.archivedTaskRepository = archivedTaskRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ArchivedTaskResponse> getArchivedTasks(@ShardKey String username, int page, int size) {
+        log.info("Fetching archived tasks for user: {}", username);
+
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        Page<ArchivedTaskResponse> tasks = archivedTaskRepository.findResponsesByUsername(username, pageable);
+        log.info("Fetched {} archived tasks for user: {}", tasks.getTotalElements(), username);
+
+        return tasks;
+    }
+}
@@ -0,0 +1,42 @@
+package com.yappyd.taskservice.service;
+
+import com.yappyd.taskservice.exception.InvalidCursorException;
+import com.yappyd.taskservice.model.Task;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public record TaskCursor(LocalDate deadline, Long id) {
+
+    private static final String NO_DEADLINE = "-";
+    private static final String SEPARATOR = "|";
+
+    public static TaskCursor of(Task task) {
+        return new TaskCursor(task.getDeadline(), task.getId());
+    }
+
+    public static TaskCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException(cursor);
+            }
+            String deadline = raw.substring(0, separator);
+            long id = Long.parseLong(raw.substring(separator + 1));
+            return new TaskCursor(NO_DEADLINE.equals(deadline) ? null : LocalDate.parse(deadline), id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    public String encode() {
+        String raw = (deadline == null ? NO_DEADLINE : deadline.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,252 @@
+package com.yappyd.taskservice.service;
+
+import com.yappyd.taskservice.dto.TaskEventResponse;
+import com.yappyd.taskservice.event.TaskChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Service
+public class TaskEventStreamService implements AutoCloseable {
+    public static final String RESYNC_EVENT = "resync";
+    public static final String HEARTBEAT_COMMENT = "keep-alive";
+
+    private final Executor executor;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ConcurrentMap<String, UserFeed> feeds = new ConcurrentHashMap<>();
+
+    @Value("${task.events.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${task.events.emitter-timeout:30m}")
+    private Duration emitterTimeout;
+
+    @Value("${task.events.retention:5m}")
+    private Duration retention;
+
+    // Drains get their own threads, so long exports on the application task executor cannot hold up the streams.
+    @Autowired
+    public TaskEventStreamService(@Value("${task.events.drain-threads:8}") int drainThreads,
+                                  @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this(drainExecutor(drainThreads, virtualThreads));
+    }
+
+    TaskEventStreamService(Executor executor) {
+        this.executor = executor;
+    }
+
+    public SseEmitter subscribe(String username, String lastEventId) {
+        SseEmitter emitter = newEmitter();
+        UserFeed feed = feeds.compute(username, (key, existing) -> {
+            UserFeed target = existing != null ? existing : new UserFeed(bufferSize);
+            target.lastActive = System.currentTimeMillis();
+            return target;
+        });
+        Subscriber subscriber = new Subscriber(feed, emitter, feed.resumeCursor(parseSequence(lastEventId)));
+        feed.subscribers.add(subscriber);
+        emitter.onCompletion(() -> unsubscribe(feed, subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> unsubscribe(feed, subscriber));
+        signal(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        UserFeed feed = feeds.get(event.username());
+        if (feed == null) {
+            return;
+        }
+        feed.append(new TaskEventResponse(event.type(), event.taskId(), event.current()));
+        feed.subscribers.forEach(this::signal);
+    }
+
+    // Proxies drop connections that stay silent, so idle streams get a comment line every interval.
+    @Scheduled(fixedDelayString = "${task.events.heartbeat-interval:15s}")
+    public void sendHeartbeats() {
+        for (UserFeed feed : feeds.values()) {
+            for (Subscriber subscriber : feed.subscribers) {
+                subscriber.heartbeatDue.set(true);
+                signal(subscriber);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${task.events.sweep-interval:60s}")
+    public void removeIdleFeeds() {
+        long cutoff = System.currentTimeMillis() - retention.toMillis();
+        feeds.values().removeIf(feed -> feed.subscribers.isEmpty() && feed.lastActive <= cutoff);
+    }
+
+    @Override
+    public void close() {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        }
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(emitterTimeout.toMillis());
+    }
+
+    private void unsubscribe(UserFeed feed, Subscriber subscriber) {
+        feed.lastActive = System.currentTimeMillis();
+        feed.subscribers.remove(subscriber);
+    }
+
+    private void signal(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            while (true) {
+                if (subscriber.heartbeatDue.getAndSet(false)) {
+                    subscriber.emitter.send(SseEmitter.event().comment(HEARTBEAT_COMMENT));
+                }
+                List<Entry> entries = subscriber.feed.since(subscriber.cursor);
+                if (entries == null) {
+                    subscriber.cursor = subscriber.feed.head();
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(eventId(subscriber.cursor))
+                            .name(RESYNC_EVENT)
+                            .data(""));
+                    continue;
+                }
+                for (Entry entry : entries) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(eventId(entry.sequence()))
+                            .name(entry.event().type().name().toLowerCase(Locale.ROOT))
+                            .data(entry.event(), MediaType.APPLICATION_JSON));
+                    subscriber.cursor = entry.sequence();
+                }
+                subscriber.draining.set(false);
+                // An event or heartbeat signalled after the last read would have found the flag set; pick it up here.
+                boolean idle = subscriber.feed.head() == subscriber.cursor && !subscriber.heartbeatDue.get();
+                if (idle || !subscriber.draining.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Closing task event stream: {}", e.getMessage());
+            subscriber.draining.set(false);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    private static Executor drainExecutor(int threads, boolean virtualThreads) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("task-events-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("task-events-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.initialize();
+        return executor;
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    private long parseSequence(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return -1;
+        }
+        // Ids from an earlier run or in an unknown shape can't be resumed from; map them past any head.
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private record Entry(long sequence, TaskEventResponse event) {
+    }
+
+    private static final class Subscriber {
+        private final UserFeed feed;
+        private final SseEmitter emitter;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        private volatile long cursor;
+
+        private Subscriber(UserFeed feed, SseEmitter emitter, long cursor) {
+            this.feed = feed;
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+
+    // Sequences start at 1; a cursor is the sequence of the last event a subscriber has seen.
+    private static final class UserFeed {
+        private final Entry[] ring;
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private long head;
+        private volatile long lastActive = System.currentTimeMillis();
+
+        private UserFeed(int capacity) {
+            this.ring = new Entry[capacity];
+        }
+
+        synchronized void append(TaskEventResponse event) {
+            head++;
+            ring[(int) (head % ring.length)] = new Entry(head, event);
+            lastActive = System.currentTimeMillis();
+        }
+
+        synchronized long head() {
+            return head;
+        }
+
+        synchronized long resumeCursor(long lastSequence) {
+            if (lastSequence < 0) {
+                return head;
+            }
+            if (lastSequence > head || lastSequence < head - ring.length) {
+                return Long.MIN_VALUE;
+            }
+            return lastSequence;
+        }
+
+        // null when some of the events after the cursor have already been overwritten.
+        synchronized List<Entry> since(long cursor) {
+            if (cursor < head - ring.length) {
+                return null;
+            }
+            List<Entry> entries = new ArrayList<>((int) (head - cursor));
+            for (long sequence = cursor + 1; sequence <= head; sequence++) {
+                entries.add(ring[(int) (sequence % ring.length)]);
+            }
+            return entries;
+        }
+    }
+}
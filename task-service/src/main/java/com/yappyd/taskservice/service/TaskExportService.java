@@ -0,0 +1,55 @@
+package com.yappyd.taskservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.model.Task;
+import com.yappyd.taskservice.repository.TaskRepository;
+import com.yappyd.taskservice.shard.ShardKey;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class TaskExportService {
+    private static final int NEWLINE = '\n';
+
+    private final TaskRepository taskRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter taskWriter;
+
+    public TaskExportService(TaskRepository taskRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.taskRepository = taskRepository;
+        this.entityManager = entityManager;
+        this.taskWriter = objectMapper.writerFor(TaskResponse.class);
+    }
+
+    @Transactional(readOnly = true)
+    public long exportTasks(@ShardKey String username, OutputStream outputStream) throws IOException {
+        log.info("Exporting tasks for user: {}", username);
+
+        long exported = 0;
+        try (Stream<Task> tasks = taskRepository.streamByUsername(username)) {
+            Iterator<Task> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                Task task = iterator.next();
+                outputStream.write(taskWriter.writeValueAsBytes(new TaskResponse(
+                        task.getId(), task.getTitle(), task.getDescription(), task.getStatus(), task.getPriority(), task.getDeadline(), task.getVersion())));
+                outputStream.write(NEWLINE);
+                entityManager.detach(task);
+                exported++;
+            }
+        }
+        outputStream.flush();
+        log.info("Exported {} tasks for user: {}", exported, username);
+
+        return exported;
+    }
+}
@@ -0,0 +1,350 @@
+package com.yappyd.taskservice.service;
+
+import com.yappyd.taskservice.dto.TaskCreateRequest;
+import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.dto.TaskUpdateRequest;
+import com.yappyd.taskservice.event.TaskChangedEvent;
+import com.yappyd.taskservice.model.Task;
+import com.yappyd.taskservice.repository.TaskRepository;
+import com.yappyd.taskservice.shard.BucketMovedException;
+import com.yappyd.taskservice.shard.ShardDirectory;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Group commit for single-task creates and updates, enabled with {@code task.group-commit.enabled}. Writes are queued
+ * per shard; one writer thread per shard takes up to {@code max-batch-size} of them, waiting at most
+ * {@code max-wait} for a group to fill, and commits the whole group in one transaction. Consecutive updates of the
+ * same task are folded into one statement, which still advances the version once per update. Each caller's future
+ * completes after the group has committed; a write that fails, e.g. on a stale version, fails only its own future. If
+ * the group's transaction fails as a whole, its writes are retried one transaction each, so a write that breaks a
+ * constraint also fails only its own future.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "task.group-commit.enabled", havingValue = "true")
+public class TaskGroupCommitter implements AutoCloseable {
+    private static final Executor RESUBMIT = CompletableFuture.delayedExecutor(10, TimeUnit.MILLISECONDS);
+
+    private final TaskService taskService;
+    private final TaskRepository taskRepository;
+    private final ShardDirectory shardDirectory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+    private final TransactionTemplate transaction;
+    private final DistributionSummary groupSizes;
+    private final List<Lane> lanes = new ArrayList<>();
+
+    private final int maxBatchSize;
+    private final Duration maxWait;
+    private final Duration awaitTimeout;
+    // Held to enqueue; taken exclusively to stop accepting writes, after which each lane drains its queue.
+    private final ReadWriteLock shutdown = new ReentrantReadWriteLock();
+    private volatile boolean running = true;
+
+    public TaskGroupCommitter(TaskService taskService, TaskRepository taskRepository, ShardDirectory shardDirectory,
+                              ApplicationEventPublisher eventPublisher, Clock clock,
+                              PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                              @Value("${task.group-commit.max-batch-size:64}") int maxBatchSize,
+                              @Value("${task.group-commit.max-wait:2ms}") Duration maxWait,
+                              @Value("${task.group-commit.await-timeout:10s}") Duration awaitTimeout) {
+        this.taskService = taskService;
+        this.taskRepository = taskRepository;
+        this.shardDirectory = shardDirectory;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.groupSizes = meterRegistry.summary("task.group-commit.size");
+        this.maxBatchSize = maxBatchSize;
+        this.maxWait = maxWait;
+        this.awaitTimeout = awaitTimeout;
+        for (int shard = 0; shard < shardDirectory.shardCount(); shard++) {
+            Lane lane = new Lane(shard);
+            lanes.add(lane);
+            lane.thread.start();
+        }
+    }
+
+    public CompletableFuture<TaskResponse> createTask(TaskCreateRequest taskCreateRequest, String username) {
+        return submit(new CreateWrite(taskCreateRequest, username, new CompletableFuture<>()));
+    }
+
+    public CompletableFuture<TaskResponse> updateTask(Long taskId, TaskUpdateRequest updateRequest, String username, Long expectedVersion) {
+        return submit(new UpdateWrite(taskId, updateRequest, username, expectedVersion, new CompletableFuture<>()));
+    }
+
+    /**
+     * Waits up to {@code await-timeout} for a write submitted here, rethrowing what it failed with. A write that times
+     * out may still commit later.
+     */
+    public TaskResponse await(CompletableFuture<TaskResponse> result) {
+        try {
+            return result.get(awaitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Group commit did not complete within " + awaitTimeout, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Group commit failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for group commit", e);
+        }
+    }
+
+    /**
+     * Stops accepting writes and waits for the lanes to commit every write already queued.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        shutdown.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            shutdown.writeLock().unlock();
+        }
+        for (Lane lane : lanes) {
+            lane.thread.join(awaitTimeout.toMillis());
+        }
+    }
+
+    private CompletableFuture<TaskResponse> submit(PendingWrite write) {
+        shutdown.readLock().lock();
+        try {
+            Lane lane = lanes.get(shardDirectory.shardOf(write.username()));
+            if (!running || lane.stopped) {
+                write.result().completeExceptionally(shutDown());
+            } else {
+                lane.queue.add(write);
+            }
+        } finally {
+            shutdown.readLock().unlock();
+        }
+        return write.result();
+    }
+
+    private static IllegalStateException shutDown() {
+        return new IllegalStateException("Group commit writer is shut down");
+    }
+
+    private void commit(int shard, List<PendingWrite> group) {
+        long started = System.nanoTime();
+        Set<Integer> buckets = group.stream().map(write -> ShardDirectory.bucketOf(write.username())).collect(Collectors.toSet());
+        Map<PendingWrite, Object> outcomes = new IdentityHashMap<>();
+        try {
+            shardDirectory.callForBuckets(shard, () -> transaction.execute(status -> {
+                apply(group, outcomes);
+                shardDirectory.fence(buckets);
+                return null;
+            }));
+        } catch (BucketMovedException e) {
+            // A bucket of the group is moving away; nothing was committed, and each write goes to its bucket's owner.
+            shardDirectory.refresh(e.bucket());
+            log.debug("Group commit on shard {} ran into a bucket move, resubmitting {} task writes", shard, group.size());
+            group.forEach(write -> RESUBMIT.execute(() -> submit(write)));
+            return;
+        } catch (RuntimeException e) {
+            if (group.size() == 1) {
+                log.warn("Task write on shard {} failed", shard, e);
+                group.get(0).result().completeExceptionally(e);
+                return;
+            }
+            log.warn("Group commit of {} task writes on shard {} failed, retrying them one by one", group.size(), shard, e);
+            group.forEach(write -> commit(shard, List.of(write)));
+            return;
+        }
+        outcomes.forEach((write, outcome) -> {
+            if (outcome instanceof RuntimeException exception) {
+                write.result().completeExceptionally(exception);
+            } else {
+                write.result().complete((TaskResponse) outcome);
+            }
+        });
+        groupSizes.record(group.size());
+        log.debug("Committed {} task writes on shard {} in {} us", group.size(), shard, (System.nanoTime() - started) / 1000);
+    }
+
+    private void apply(List<PendingWrite> writes, Map<PendingWrite, Object> outcomes) {
+        List<CreateWrite> creates = new ArrayList<>();
+        List<List<UpdateWrite>> chains = new ArrayList<>();
+        Map<Long, List<UpdateWrite>> openChains = new HashMap<>();
+        for (PendingWrite write : writes) {
+            if (write instanceof CreateWrite create) {
+                creates.add(create);
+            } else if (write instanceof UpdateWrite update) {
+                // A conditional update can only be checked against the version left by the updates before it.
+                List<UpdateWrite> chain = openChains.get(update.taskId());
+                if (chain == null || update.expectedVersion() != null || !chain.get(0).username().equals(update.username())) {
+                    chain = new ArrayList<>();
+                    chains.add(chain);
+                    openChains.put(update.taskId(), chain);
+                }
+                chain.add(update);
+            }
+        }
+
+        if (!creates.isEmpty()) {
+            Instant now = clock.instant();
+            List<Task> tasks = taskRepository.saveAll(creates.stream()
+                    .map(create -> TaskService.toTask(create.request(), create.username(), now))
+                    .toList());
+            for (int i = 0; i < creates.size(); i++) {
+                TaskResponse taskResponse = TaskService.toResponse(tasks.get(i));
+                eventPublisher.publishEvent(TaskChangedEvent.created(creates.get(i).username(), taskResponse));
+                outcomes.put(creates.get(i), taskResponse);
+            }
+        }
+        chains.forEach(chain -> applyChain(chain, outcomes));
+    }
+
+    /**
+     * Runs a chain of updates to one task as a single statement. If it fails, the first update is the one that failed;
+     * the rest did not depend on its version and are retried on their own.
+     */
+    private void applyChain(List<UpdateWrite> chain, Map<PendingWrite, Object> outcomes) {
+        UpdateWrite first = chain.get(0);
+        TaskUpdateRequest merged = chain.stream().map(UpdateWrite::request).reduce(TaskGroupCommitter::merge).orElseThrow();
+        Task previous = taskRepository.updateIfOwned(
+                        first.taskId(),
+                        first.username(),
+                        merged.title(),
+                        merged.description(),
+                        merged.priority() != null ? merged.priority().name() : null,
+                        merged.status() != null ? merged.status().name() : null,
+                        merged.deadline(),
+                        first.expectedVersion(),
+                        clock.instant(),
+                        chain.size())
+                .orElse(null);
+        if (previous == null) {
+            outcomes.put(first, taskService.staleOrMissingTaskException(first.taskId(), first.username(), first.expectedVersion()));
+            if (chain.size() > 1) {
+                applyChain(chain.subList(1, chain.size()), outcomes);
+            }
+            return;
+        }
+
+        TaskResponse state = TaskService.toResponse(previous);
+        for (UpdateWrite update : chain) {
+            TaskResponse next = TaskService.applied(state, update.request());
+            eventPublisher.publishEvent(TaskChangedEvent.updated(update.username(), state, next));
+            outcomes.put(update, next);
+            state = next;
+        }
+    }
+
+    private static TaskUpdateRequest merge(TaskUpdateRequest earlier, TaskUpdateRequest later) {
+        return new TaskUpdateRequest(
+                later.title() != null ? later.title() : earlier.title(),
+                later.description() != null ? later.description() : earlier.description(),
+                later.priority() != null ? later.priority() : earlier.priority(),
+                later.status() != null ? later.status() : earlier.status(),
+                later.deadline() != null ? later.deadline() : earlier.deadline()
+        );
+    }
+
+    private final class Lane implements Runnable {
+        private final int shard;
+        private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+        private final Thread thread;
+        private volatile boolean stopped;
+
+        private Lane(int shard) {
+            this.shard = shard;
+            this.thread = new Thread(this, "task-group-commit-" + shard);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                // Writes queued before close() are still committed; none are queued after it.
+                while (running || !queue.isEmpty()) {
+                    PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    List<PendingWrite> group = new ArrayList<>(maxBatchSize);
+                    group.add(first);
+                    long deadline = System.nanoTime() + maxWait.toNanos();
+                    while (group.size() < maxBatchSize) {
+                        PendingWrite next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        group.add(next);
+                    }
+                    try {
+                        commit(shard, group);
+                    } catch (Throwable e) {
+                        log.error("Group commit writer for shard {} failed", shard, e);
+                        group.forEach(write -> write.result().completeExceptionally(e));
+                        if (e instanceof Error) {
+                            throw e;
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                stop();
+            }
+        }
+
+        // Nothing is enqueued once the lane is stopped, so what is drained here is all that is left.
+        private void stop() {
+            shutdown.writeLock().lock();
+            try {
+                stopped = true;
+            } finally {
+                shutdown.writeLock().unlock();
+            }
+            PendingWrite write;
+            while ((write = queue.poll()) != null) {
+                write.result().completeExceptionally(shutDown());
+            }
+        }
+    }
+
+    private sealed interface PendingWrite permits CreateWrite, UpdateWrite {
+        String username();
+
+        CompletableFuture<TaskResponse> result();
+    }
+
+    private record CreateWrite(TaskCreateRequest request, String username, CompletableFuture<TaskResponse> result)
+            implements PendingWrite {
+    }
+
+    private record UpdateWrite(Long taskId, TaskUpdateRequest request, String username, Long expectedVersion,
+                               CompletableFuture<TaskResponse> result) implements PendingWrite {
+    }
+}
@@ -0,0 +1,236 @@
+package com.yappyd.taskservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.yappyd.taskservice.dto.TaskCreateRequest;
+import com.yappyd.taskservice.dto.TaskImportError;
+import com.yappyd.taskservice.dto.TaskImportResponse;
+import com.yappyd.taskservice.exception.InvalidImportException;
+import com.yappyd.taskservice.model.Task.TaskPriority;
+import com.yappyd.taskservice.model.Task.TaskStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@Service
+public class TaskImportService {
+
+    public enum ImportFormat {
+        NDJSON,
+        CSV
+    }
+
+    private final TaskService taskService;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ObjectReader taskReader;
+
+    @Value("${task.import.batch-size:500}")
+    private int batchSize;
+    @Value("${task.import.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    public TaskImportService(TaskService taskService, EntityManager entityManager, Validator validator, ObjectMapper objectMapper) {
+        this.taskService = taskService;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.taskReader = objectMapper.readerFor(TaskCreateRequest.class);
+    }
+
+    public TaskImportResponse importTasks(InputStream inputStream, ImportFormat format, String username) throws IOException {
+        log.info("Importing {} tasks for user: {}", format, username);
+
+        ImportProgress progress = new ImportProgress();
+        List<TaskCreateRequest> batch = new ArrayList<>(batchSize);
+        Map<String, Integer> csvColumns = null;
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == ImportFormat.CSV && csvColumns == null) {
+                csvColumns = parseCsvHeader(line);
+                continue;
+            }
+
+            TaskCreateRequest request;
+            try {
+                request = format == ImportFormat.NDJSON ? parseNdjson(line) : parseCsv(line, csvColumns);
+            } catch (IllegalArgumentException e) {
+                progress.fail(lineNumber, e.getMessage());
+                continue;
+            }
+            Set<ConstraintViolation<TaskCreateRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                progress.fail(lineNumber, describe(violations));
+                continue;
+            }
+
+            batch.add(request);
+            if (batch.size() >= batchSize) {
+                writeBatch(batch, username, progress);
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch, username, progress);
+        }
+        log.info("Imported {} tasks for user: {}, {} lines failed", progress.imported, username, progress.failed);
+
+        return new TaskImportResponse(progress.imported, progress.failed, progress.errors);
+    }
+
+    private void writeBatch(List<TaskCreateRequest> batch, String username, ImportProgress progress) {
+        progress.imported += taskService.createTasks(batch, username).size();
+        entityManager.clear();
+        batch.clear();
+        log.debug("Imported {} tasks so far for user: {}", progress.imported, username);
+    }
+
+    private TaskCreateRequest parseNdjson(String line) {
+        TaskCreateRequest request;
+        try {
+            request = taskReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e.getOriginalMessage());
+        }
+        if (request == null) {
+            throw new IllegalArgumentException("Expected a task object");
+        }
+        return request;
+    }
+
+    private Map<String, Integer> parseCsvHeader(String line) {
+        List<String> names;
+        try {
+            names = splitCsvLine(line);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidImportException("CSV header: " + e.getMessage());
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("title", "priority", "status")) {
+            if (!columns.containsKey(required)) {
+                throw new InvalidImportException("CSV header is missing column '" + required + "'");
+            }
+        }
+        return columns;
+    }
+
+    private TaskCreateRequest parseCsv(String line, Map<String, Integer> columns) {
+        List<String> fields = splitCsvLine(line);
+        String priority = field(fields, columns, "priority");
+        String status = field(fields, columns, "status");
+        String deadline = field(fields, columns, "deadline");
+        return new TaskCreateRequest(
+                field(fields, columns, "title"),
+                field(fields, columns, "description"),
+                priority != null ? parseEnum(TaskPriority.class, priority, "priority") : null,
+                status != null ? parseEnum(TaskStatus.class, status, "status") : null,
+                deadline != null ? parseDate(deadline) : null
+        );
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String name) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown " + name + " '" + value + "'");
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid deadline '" + value + "'");
+        }
+    }
+
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String describe(Set<ConstraintViolation<TaskCreateRequest>> violations) {
+        StringBuilder details = new StringBuilder();
+        for (ConstraintViolation<TaskCreateRequest> violation : violations) {
+            details.append(violation.getPropertyPath())
+                    .append(": ")
+                    .append(violation.getMessage())
+                    .append("; ");
+        }
+        return details.toString().trim();
+    }
+
+    private class ImportProgress {
+        private long imported;
+        private long failed;
+        private final List<TaskImportError> errors = new ArrayList<>();
+
+        private void fail(long line, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new TaskImportError(line, message));
+            }
+        }
+    }
+}
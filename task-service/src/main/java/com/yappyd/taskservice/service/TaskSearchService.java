@@ -0,0 +1,50 @@
+package com.yappyd.taskservice.service;
+
+import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.model.Task;
+import com.yappyd.taskservice.repository.TaskRepository;
+import com.yappyd.taskservice.search.TaskSearchIndex;
+import com.yappyd.taskservice.shard.ShardKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class TaskSearchService {
+    private static final int MAX_SEARCH_RESULTS = 100;
+
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskRepository taskRepository;
+
+    public TaskSearchService(TaskSearchIndex taskSearchIndex, TaskRepository taskRepository) {
+        this.taskSearchIndex = taskSearchIndex;
+        this.taskRepository = taskRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public List<TaskResponse> searchTasks(@ShardKey String username, String query, int limit) {
+        log.info("Searching tasks for user: {}", username);
+
+        List<Long> taskIds = taskSearchIndex.search(username, query, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+        if (taskIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Task> tasks = taskRepository.findAllById(taskIds).stream()
+                .filter(task -> task.getUsername().equals(username))
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        log.info("Found {} tasks for user: {}", tasks.size(), username);
+
+        return taskIds.stream()
+                .map(tasks::get)
+                .filter(Objects::nonNull)
+                .map(task -> new TaskResponse(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(), task.getPriority(), task.getDeadline(), task.getVersion()))
+                .toList();
+    }
+}
@@ -1,81 +1,216 @@
 package com.yappyd.taskservice.service;
 
+import com.yappyd.taskservice.cache.TaskListKeyGenerator;
+import com.yappyd.taskservice.config.CacheConfig;
 import com.yappyd.taskservice.dto.TaskCreateRequest;
+import com.yappyd.taskservice.dto.TaskCursorPage;
+import com.yappyd.taskservice.dto.TaskFilter;
 import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.dto.TaskSummaryResponse;
 import com.yappyd.taskservice.dto.TaskUpdateRequest;
+import com.yappyd.taskservice.event.TaskChangedEvent;
 import com.yappyd.taskservice.exception.TaskNotFoundException;
+import com.yappyd.taskservice.exception.TaskVersionConflictException;
 import com.yappyd.taskservice.exception.UsernameAccessException;
 import com.yappyd.taskservice.model.Task;
 import com.yappyd.taskservice.repository.TaskRepository;
+import com.yappyd.taskservice.shard.ShardKey;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
 @Slf4j
 @Service
 public class TaskService {
+    private static final int MAX_KEYSET_PAGE_SIZE = 100;
+
     private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
 
-    public TaskService(TaskRepository taskRepository) {
+    public TaskService(TaskRepository taskRepository, ApplicationEventPublisher eventPublisher, Clock clock) {
         this.taskRepository = taskRepository;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
     }
 
-    public TaskResponse createTask(TaskCreateRequest taskCreateRequest, String username) {
+    @Transactional
+    public TaskResponse createTask(TaskCreateRequest taskCreateRequest, @ShardKey String username) {
         log.info("Creating task for user: {}", username);
 
-        Task task = Task.builder()
-                .title(taskCreateRequest.title())
-                .description(taskCreateRequest.description())
-                .priority(taskCreateRequest.priority())
-                .status(taskCreateRequest.status())
-                .deadline(taskCreateRequest.deadline())
-                .username(username)
-                .build();
-        task = taskRepository.save(task);
+        Task task = taskRepository.save(toTask(taskCreateRequest, username, clock.instant()));
         log.info("Task {} created for user: {}", task.getId(), username);
 
-        return new TaskResponse(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(), task.getPriority(), task.getDeadline());
+        TaskResponse taskResponse = toResponse(task);
+        eventPublisher.publishEvent(TaskChangedEvent.created(username, taskResponse));
+
+        return taskResponse;
+    }
+
+    @Transactional
+    public List<TaskResponse> createTasks(List<TaskCreateRequest> taskCreateRequests, @ShardKey String username) {
+        log.info("Creating {} tasks for user: {}", taskCreateRequests.size(), username);
+
+        Instant now = clock.instant();
+        List<Task> tasks = taskRepository.saveAll(taskCreateRequests.stream()
+                .map(taskCreateRequest -> toTask(taskCreateRequest, username, now))
+                .toList());
+        log.info("Created {} tasks for user: {}", tasks.size(), username);
+
+        List<TaskResponse> taskResponses = tasks.stream().map(TaskService::toResponse).toList();
+        taskResponses.forEach(taskResponse -> eventPublisher.publishEvent(TaskChangedEvent.created(username, taskResponse)));
+
+        return taskResponses;
     }
 
-    public Page<TaskResponse> getTasks(String username, Pageable pageable) {
+    @Cacheable(cacheNames = CacheConfig.TASK_LISTS, keyGenerator = TaskListKeyGenerator.NAME)
+    @Transactional(readOnly = true)
+    public Page<TaskResponse> getTasks(@ShardKey String username, TaskFilter filter, Pageable pageable) {
         log.info("Fetching tasks for user: {}", username);
 
-        Page<Task> tasks = taskRepository.findByUsername(username, pageable);
+        Page<TaskResponse> tasks = taskRepository.findResponses(username, filter, pageable);
         log.info("Fetched {} tasks for user: {}", tasks.getTotalElements(), username);
 
-        return tasks.map(task -> new TaskResponse(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(), task.getPriority(), task.getDeadline()));
+        return tasks;
     }
 
-    public TaskResponse updateTask(Long taskId, TaskUpdateRequest updateRequest, String username) {
-        log.info("Updating Task {} for user: {}", taskId, username);
+    @Cacheable(cacheNames = CacheConfig.TASK_LISTS, keyGenerator = TaskListKeyGenerator.NAME)
+    @Transactional(readOnly = true)
+    public Page<TaskSummaryResponse> getTaskSummaries(@ShardKey String username, TaskFilter filter, Pageable pageable) {
+        log.info("Fetching task summaries for user: {}", username);
+
+        Page<TaskSummaryResponse> summaries = taskRepository.findSummaries(username, filter, pageable);
+        log.info("Fetched {} task summaries for user: {}", summaries.getTotalElements(), username);
+
+        return summaries;
+    }
+
+    @Transactional(readOnly = true)
+    public TaskResponse getTask(Long taskId, @ShardKey String username) {
+        log.info("Fetching Task {} for user: {}", taskId, username);
 
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new TaskNotFoundException(taskId.toString()));
-        if (!task.getUsername().equals(username)) {
-            throw new UsernameAccessException(username, taskId.toString());
+        TaskResponse taskResponse = taskRepository.findResponseByIdAndUsername(taskId, username)
+                .orElseThrow(() -> missingTaskException(taskId, username));
+        log.info("Fetched Task {} for user: {}", taskId, username);
+
+        return taskResponse;
+    }
+
+    @Transactional(readOnly = true)
+    public TaskCursorPage getTasksAfter(@ShardKey String username, String after, int size) {
+        log.info("Fetching tasks after cursor for user: {}", username);
+
+        int pageSize = Math.max(1, Math.min(size, MAX_KEYSET_PAGE_SIZE));
+        TaskCursor cursor = TaskCursor.decode(after);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<Task> tasks;
+        if (cursor == null) {
+            tasks = taskRepository.findFirstKeysetPage(username, limit);
+        } else if (cursor.deadline() == null) {
+            tasks = new ArrayList<>(taskRepository.findUndatedAfter(username, cursor.id(), limit));
+            if (tasks.size() <= pageSize) {
+                tasks.addAll(taskRepository.findFirstDated(username, Limit.of(pageSize + 1 - tasks.size())));
+            }
+        } else {
+            tasks = taskRepository.findDatedAfter(username, cursor.deadline(), cursor.id(), limit);
         }
-        if (updateRequest.title() != null) task.setTitle(updateRequest.title());
-        if (updateRequest.description() != null) task.setDescription(updateRequest.description());
-        if (updateRequest.priority() != null) task.setPriority(updateRequest.priority());
-        if (updateRequest.status() != null) task.setStatus(updateRequest.status());
-        if (updateRequest.deadline() != null) task.setDeadline(updateRequest.deadline());
 
-        task = taskRepository.save(task);
+        boolean hasNext = tasks.size() > pageSize;
+        List<Task> page = hasNext ? tasks.subList(0, pageSize) : tasks;
+        String nextCursor = hasNext ? TaskCursor.of(page.get(page.size() - 1)).encode() : null;
+        log.info("Fetched {} tasks after cursor for user: {}", page.size(), username);
+
+        return new TaskCursorPage(
+                page.stream().map(TaskService::toResponse).toList(),
+                nextCursor
+        );
+    }
+
+    @Transactional
+    public TaskResponse updateTask(Long taskId, TaskUpdateRequest updateRequest, @ShardKey String username, Long expectedVersion) {
+        log.info("Updating Task {} for user: {}", taskId, username);
+
+        Task previous = taskRepository.updateIfOwned(
+                        taskId,
+                        username,
+                        updateRequest.title(),
+                        updateRequest.description(),
+                        updateRequest.priority() != null ? updateRequest.priority().name() : null,
+                        updateRequest.status() != null ? updateRequest.status().name() : null,
+                        updateRequest.deadline(),
+                        expectedVersion,
+                        clock.instant())
+                .orElseThrow(() -> staleOrMissingTaskException(taskId, username, expectedVersion));
         log.info("Updated Task {} for user: {}", taskId, username);
 
-        return new TaskResponse(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(), task.getPriority(), task.getDeadline());
+        TaskResponse previousResponse = toResponse(previous);
+        TaskResponse taskResponse = applied(previousResponse, updateRequest);
+        eventPublisher.publishEvent(TaskChangedEvent.updated(username, previousResponse, taskResponse));
+
+        return taskResponse;
     }
 
-    public void deleteTask(Long taskId, String username) {
+    @Transactional
+    public void deleteTask(Long taskId, @ShardKey String username) {
         log.info("Deleting Task {} for user: {}", taskId, username);
 
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new TaskNotFoundException(taskId.toString()));
-        if (!task.getUsername().equals(username)) {
-            throw new UsernameAccessException(username, taskId.toString());
-        }
-        taskRepository.delete(task);
+        Task previous = taskRepository.deleteIfOwned(taskId, username)
+                .orElseThrow(() -> missingTaskException(taskId, username));
         log.info("Deleted Task {} for user: {}", taskId, username);
+
+        eventPublisher.publishEvent(TaskChangedEvent.deleted(username, toResponse(previous)));
+    }
+
+    RuntimeException staleOrMissingTaskException(Long taskId, String username, Long expectedVersion) {
+        if (expectedVersion != null && taskRepository.existsByIdAndUsername(taskId, username)) {
+            return new TaskVersionConflictException(taskId.toString(), expectedVersion);
+        }
+        return missingTaskException(taskId, username);
+    }
+
+    private RuntimeException missingTaskException(Long taskId, String username) {
+        if (taskRepository.existsById(taskId)) {
+            return new UsernameAccessException(username, taskId.toString());
+        }
+        return new TaskNotFoundException(taskId.toString());
+    }
+
+    static Task toTask(TaskCreateRequest taskCreateRequest, String username, Instant now) {
+        return Task.builder()
+                .title(taskCreateRequest.title())
+                .description(taskCreateRequest.description())
+                .priority(taskCreateRequest.priority())
+                .status(taskCreateRequest.status())
+                .deadline(taskCreateRequest.deadline())
+                .completedAt(taskCreateRequest.status() == Task.TaskStatus.DONE ? now : null)
+                .username(username)
+                .build();
+    }
+
+    static TaskResponse toResponse(Task task) {
+        return new TaskResponse(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(), task.getPriority(), task.getDeadline(), task.getVersion());
+    }
+
+    static TaskResponse applied(TaskResponse previous, TaskUpdateRequest updateRequest) {
+        return new TaskResponse(
+                previous.id(),
+                updateRequest.title() != null ? updateRequest.title() : previous.title(),
+                updateRequest.description() != null ? updateRequest.description() : previous.description(),
+                updateRequest.status() != null ? updateRequest.status() : previous.status(),
+                updateRequest.priority() != null ? updateRequest.priority() : previous.priority(),
+                updateRequest.deadline() != null ? updateRequest.deadline() : previous.deadline(),
+                previous.version() + 1
+        );
     }
 }
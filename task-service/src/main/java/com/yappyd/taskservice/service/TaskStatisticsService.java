@@ -0,0 +1,206 @@
+package com.yappyd.taskservice.service;
+
+import com.yappyd.taskservice.dto.TaskCountRow;
+import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.dto.TaskStatsResponse;
+import com.yappyd.taskservice.event.TaskChangedEvent;
+import com.yappyd.taskservice.model.Task.*;
+import com.yappyd.taskservice.repository.TaskRepository;
+import com.yappyd.taskservice.shard.ShardDirectory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class TaskStatisticsService {
+    private static final int MAX_RECONCILE_RETRIES = 3;
+
+    private final TaskRepository taskRepository;
+    private final ShardDirectory shardDirectory;
+    private final Clock clock;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ConcurrentMap<String, UserCounters> counters = new ConcurrentHashMap<>();
+    private volatile Set<String> changedDuringReconcile;
+
+    public TaskStatisticsService(TaskRepository taskRepository, ShardDirectory shardDirectory, Clock clock,
+                                 PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.shardDirectory = shardDirectory;
+        this.clock = clock;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public TaskStatsResponse getStats(String username) {
+        LocalDate today = LocalDate.now(clock);
+        UserCounters userCounters = counters.get(username);
+        if (userCounters == null) {
+            return new UserCounters().toResponse(today);
+        }
+        synchronized (userCounters) {
+            return userCounters.toResponse(today);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        Set<String> changed = changedDuringReconcile;
+        if (changed != null) {
+            changed.add(event.username());
+        }
+        LocalDate today = LocalDate.now(clock);
+        counters.compute(event.username(), (username, userCounters) -> {
+            UserCounters target = userCounters != null ? userCounters : new UserCounters();
+            synchronized (target) {
+                if (event.previous() != null) {
+                    target.add(event.previous(), -1, today);
+                }
+                if (event.current() != null) {
+                    target.add(event.current(), 1, today);
+                }
+            }
+            return target;
+        });
+    }
+
+    @Scheduled(cron = "${task.stats.reconcile-cron:0 0 * * * *}")
+    public void reconcile() {
+        long started = System.currentTimeMillis();
+        Set<String> changed = ConcurrentHashMap.newKeySet();
+        changedDuringReconcile = changed;
+        try {
+            LocalDate today = LocalDate.now(clock);
+            Map<String, UserCounters> recomputed = new HashMap<>();
+            // Bucket by bucket, so a bucket that moves meanwhile is counted once, on its owner.
+            for (int bucket : shardDirectory.buckets()) {
+                recomputed.putAll(shardDirectory.callForBucket(bucket, () -> readOnlyTransaction.execute(status -> {
+                    Map<String, UserCounters> inBucket = new HashMap<>();
+                    try (Stream<TaskCountRow> rows = taskRepository.streamCounts(bucket)) {
+                        rows.forEach(row -> inBucket.computeIfAbsent(row.username(), username -> new UserCounters()).add(row, today));
+                    }
+                    return inBucket;
+                })));
+            }
+
+            Set<String> usernames = new HashSet<>(recomputed.keySet());
+            usernames.addAll(counters.keySet());
+            for (String username : usernames) {
+                replaceUnlessChanged(username, recomputed.getOrDefault(username, new UserCounters()), changed);
+            }
+            log.info("Reconciled task statistics for {} users in {} ms", usernames.size(), System.currentTimeMillis() - started);
+
+            Set<String> retry = Set.copyOf(changed);
+            for (int attempt = 0; !retry.isEmpty() && attempt < MAX_RECONCILE_RETRIES; attempt++) {
+                changed.clear();
+                for (String username : retry) {
+                    replaceUnlessChanged(username, recompute(username), changed);
+                }
+                retry = Set.copyOf(changed);
+            }
+            if (!retry.isEmpty()) {
+                log.warn("Task statistics for {} users kept changing and were left for the next reconciliation", retry.size());
+            }
+        } finally {
+            changedDuringReconcile = null;
+        }
+    }
+
+    private UserCounters recompute(String username) {
+        LocalDate today = LocalDate.now(clock);
+        List<TaskCountRow> rows = shardDirectory.callFor(username,
+                () -> readOnlyTransaction.execute(status -> taskRepository.findCountsByUsername(username)));
+        UserCounters recomputed = new UserCounters();
+        rows.forEach(row -> recomputed.add(row, today));
+        return recomputed;
+    }
+
+    private void replaceUnlessChanged(String username, UserCounters recomputed, Set<String> changed) {
+        counters.compute(username, (key, current) -> {
+            if (changed.contains(key)) {
+                return current;
+            }
+            return recomputed.total == 0 ? null : recomputed;
+        });
+    }
+
+    static final class UserCounters {
+        private long total;
+        private final long[] byStatus = new long[TaskStatus.values().length];
+        private final long[] byPriority = new long[TaskPriority.values().length];
+        private final NavigableMap<LocalDate, Long> openByDeadline = new TreeMap<>();
+        // Open tasks due before overdueAsOf, rolled forward when the date moves on.
+        private long overdue;
+        private LocalDate overdueAsOf = LocalDate.MIN;
+
+        void add(TaskResponse task, long delta, LocalDate today) {
+            add(task.status(), task.priority(), task.deadline(), delta, today);
+        }
+
+        void add(TaskCountRow row, LocalDate today) {
+            add(row.status(), row.priority(), row.deadline(), row.count(), today);
+        }
+
+        private void add(TaskStatus status, TaskPriority priority, LocalDate deadline, long delta, LocalDate today) {
+            total += delta;
+            byStatus[status.ordinal()] += delta;
+            byPriority[priority.ordinal()] += delta;
+            if (status == TaskStatus.DONE || deadline == null) {
+                return;
+            }
+            roll(today);
+            openByDeadline.merge(deadline, delta, (left, right) -> left + right == 0 ? null : left + right);
+            if (deadline.isBefore(overdueAsOf)) {
+                overdue += delta;
+            }
+        }
+
+        TaskStatsResponse toResponse(LocalDate today) {
+            roll(today);
+            Map<TaskStatus, Long> statuses = new EnumMap<>(TaskStatus.class);
+            for (TaskStatus status : TaskStatus.values()) {
+                statuses.put(status, byStatus[status.ordinal()]);
+            }
+            Map<TaskPriority, Long> priorities = new EnumMap<>(TaskPriority.class);
+            for (TaskPriority priority : TaskPriority.values()) {
+                priorities.put(priority, byPriority[priority.ordinal()]);
+            }
+            return new TaskStatsResponse(total, statuses, priorities, overdue);
+        }
+
+        private void roll(LocalDate today) {
+            if (today.equals(overdueAsOf)) {
+                return;
+            }
+            if (today.isAfter(overdueAsOf)) {
+                for (long count : openByDeadline.subMap(overdueAsOf, true, today, false).values()) {
+                    overdue += count;
+                }
+            } else {
+                overdue = 0;
+                for (long count : openByDeadline.headMap(today, false).values()) {
+                    overdue += count;
+                }
+            }
+            overdueAsOf = today;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.yappyd.taskservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.yappyd.taskservice.event.TaskChangedEvent;
+import com.yappyd.taskservice.shard.BucketMovedException;
+import com.yappyd.taskservice.shard.ShardContext;
+import com.yappyd.taskservice.shard.ShardDirectory;
+import com.yappyd.taskservice.shard.ShardKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Per-user change counter in {@code user_task_version}, bumped once by each transaction that changes the user's tasks,
+ * so every instance hands out the same version and ETag.
+ * <p>
+ * Reads are served from memory: a request reads the version once and keeps it as a request attribute, and each
+ * instance caches versions for {@code task.versions.cache-ttl}. A change committed here drops the cached version at
+ * once; a change committed by another instance is seen when the cached one expires, so the TTL bounds how long another
+ * instance may answer 304 for a list that has changed.
+ */
+@Component
+public class UserTaskVersions {
+    private static final String REQUEST_ATTRIBUTE_PREFIX = UserTaskVersions.class.getName() + ".";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<String, Long> versions;
+
+    public UserTaskVersions(DataSource dataSource, @Value("${task.versions.cache-ttl:1s}") Duration cacheTtl) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    // Outside any read-only transaction, so the version comes from the primary and never from a lagging replica.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long current(@ShardKey String username) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null && request.getAttribute(REQUEST_ATTRIBUTE_PREFIX + username, RequestAttributes.SCOPE_REQUEST) instanceof Long version) {
+            return version;
+        }
+        long version = versions.get(username, this::load);
+        if (request != null) {
+            request.setAttribute(REQUEST_ATTRIBUTE_PREFIX + username, version, RequestAttributes.SCOPE_REQUEST);
+        }
+        return version;
+    }
+
+    /**
+     * Weak ETag for anything derived from the user's tasks.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String etag(@ShardKey String username) {
+        return "W/\"" + current(username) + "\"";
+    }
+
+    /**
+     * Collects the users a transaction changes and bumps each of them once just before it commits, however many of
+     * their tasks it touched.
+     */
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        forgetInRequest(event.username());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(event.username());
+            versions.invalidate(event.username());
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<String> usernames = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (usernames == null) {
+            Set<String> changed = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, changed);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    changed.forEach(UserTaskVersions.this::increment);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(UserTaskVersions.this);
+                    if (status == STATUS_COMMITTED) {
+                        versions.invalidateAll(changed);
+                    }
+                }
+            });
+            usernames = changed;
+        }
+        usernames.add(event.username());
+    }
+
+    // No transaction checks the bucket's fence before commit here, so the query checks it itself.
+    private long load(String username) {
+        int bucket = ShardDirectory.bucketOf(username);
+        List<Long> rows = jdbcTemplate.queryForList("SELECT v.version FROM task_bucket_fence f " +
+                "LEFT JOIN user_task_version v ON v.username = ? WHERE f.bucket = ?", Long.class, username, bucket);
+        if (rows.isEmpty()) {
+            throw new BucketMovedException(bucket, ShardContext.current().shard());
+        }
+        return rows.get(0) == null ? 0L : rows.get(0);
+    }
+
+    private void increment(String username) {
+        if (jdbcTemplate.update("UPDATE user_task_version SET version = version + 1 WHERE username = ?", username) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO user_task_version (username, bucket, version) VALUES (?, ?, 1)",
+                    username, ShardDirectory.bucketOf(username));
+        } catch (DuplicateKeyException e) {
+            // A concurrent first change of the same user inserted the row in the meantime.
+            jdbcTemplate.update("UPDATE user_task_version SET version = version + 1 WHERE username = ?", username);
+        }
+    }
+
+    // A request that changes tasks and then lists them must not keep the version it read before.
+    private static void forgetInRequest(String username) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.removeAttribute(REQUEST_ATTRIBUTE_PREFIX + username, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.yappyd.taskservice.shard;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Makes every transaction routed to a single bucket check the bucket's fence before it commits; see
+ * {@link ShardDirectory}. Spring Boot registers it with the transaction manager.
+ */
+@Component
+class BucketFenceListener implements TransactionExecutionListener {
+    private final ShardDirectory shardDirectory;
+
+    BucketFenceListener(ShardDirectory shardDirectory) {
+        this.shardDirectory = shardDirectory;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        ShardContext.Route route = ShardContext.current();
+        if (beginFailure != null || !transaction.isNewTransaction() || route == null || route.bucket() == ShardContext.ALL_BUCKETS) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                shardDirectory.checkFence(route, readOnly);
+            }
+        });
+    }
+}
@@ -0,0 +1,20 @@
+package com.yappyd.taskservice.shard;
+
+import org.springframework.dao.TransientDataAccessException;
+
+/**
+ * A transaction found that its shard no longer owns a bucket it wrote to or read from: the bucket is being, or has
+ * been, moved. Nothing of the transaction was committed, so it can be retried on the bucket's owner.
+ */
+public class BucketMovedException extends TransientDataAccessException {
+    private final int bucket;
+
+    public BucketMovedException(int bucket, int shard) {
+        super("Bucket " + bucket + " is no longer owned by shard " + shard);
+        this.bucket = bucket;
+    }
+
+    public int bucket() {
+        return bucket;
+    }
+}
@@ -0,0 +1,62 @@
+package com.yappyd.taskservice.shard;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions of one user round-robin to the shard's replicas and everything else to its primary,
+ * including whole-shard scans, which rebuild in-memory state and must not miss a change. A replica is only used once
+ * it holds the user's latest version from {@code user_task_version}, so nobody reads an older state than the one
+ * they, or any other instance, last wrote. The read-only flag is only known once the transaction has started, so
+ * this has to sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} that defers the
+ * lookup to the first statement.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private static final String PRIMARY = "primary";
+    private static final String VERSION_QUERY = "SELECT version FROM user_task_version WHERE username = ?";
+
+    private final JdbcTemplate primary;
+    private final List<JdbcTemplate> replicas;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+        this.primary = new JdbcTemplate(primary);
+        this.replicas = replicas.stream().map(JdbcTemplate::new).toList();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int replica = 0; replica < replicas.size(); replica++) {
+            targets.put(replica, replicas.get(replica));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        ShardContext.Route route = ShardContext.current();
+        if (route == null || route.username() == null) {
+            return PRIMARY;
+        }
+        int replica = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        // The primary first: a replica that has caught up with what it returns holds every earlier change too.
+        long written = version(primary, route.username());
+        return version(replicas.get(replica), route.username()) >= written ? replica : PRIMARY;
+    }
+
+    private static long version(JdbcTemplate jdbcTemplate, String username) {
+        List<Long> versions = jdbcTemplate.queryForList(VERSION_QUERY, Long.class, username);
+        return versions.isEmpty() ? 0L : versions.get(0);
+    }
+}
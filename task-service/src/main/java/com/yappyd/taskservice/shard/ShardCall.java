@@ -0,0 +1,6 @@
+package com.yappyd.taskservice.shard;
+
+@FunctionalInterface
+public interface ShardCall<T, E extends Throwable> {
+    T call() throws E;
+}
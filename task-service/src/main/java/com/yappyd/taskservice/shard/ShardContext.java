@@ -0,0 +1,46 @@
+package com.yappyd.taskservice.shard;
+
+/**
+ * The shard the current thread is routed to. Unrouted access (Hibernate bootstrap, the shard directory) goes to
+ * shard 0.
+ */
+public final class ShardContext {
+    static final int ALL_BUCKETS = -1;
+
+    private static final ThreadLocal<Route> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Route current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs {@code call} against a whole shard. Rows of buckets the shard does not own may still be there mid-migration,
+     * so jobs that scan every user go bucket by bucket through {@link ShardDirectory#callForBucket} instead.
+     */
+    public static <T, E extends Throwable> T callOn(int shard, ShardCall<T, E> call) throws E {
+        return callOn(new Route(null, ALL_BUCKETS, shard), call);
+    }
+
+    static <T, E extends Throwable> T callOn(Route route, ShardCall<T, E> call) throws E {
+        Route previous = CURRENT.get();
+        CURRENT.set(route);
+        try {
+            return call.call();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * {@code username} is the user the route was entered for, or {@code null} for a whole-shard scan.
+     */
+    public record Route(String username, int bucket, int shard) {
+    }
+}
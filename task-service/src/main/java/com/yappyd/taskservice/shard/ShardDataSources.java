@@ -0,0 +1,54 @@
+package com.yappyd.taskservice.shard;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The physical data sources of every shard, indexed by shard number: the primary, which takes all writes, and any
+ * read replicas.
+ */
+public class ShardDataSources implements AutoCloseable {
+    private final List<DataSource> primaries;
+    private final List<List<DataSource>> replicas;
+
+    public ShardDataSources(List<DataSource> primaries, List<List<DataSource>> replicas) {
+        if (primaries.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        if (replicas.size() != primaries.size()) {
+            throw new IllegalArgumentException("Expected replicas for " + primaries.size() + " shards, got " + replicas.size());
+        }
+        this.primaries = List.copyOf(primaries);
+        this.replicas = replicas.stream().map(List::copyOf).toList();
+    }
+
+    public int size() {
+        return primaries.size();
+    }
+
+    public DataSource get(int shard) {
+        return primaries.get(shard);
+    }
+
+    public List<DataSource> replicas(int shard) {
+        return replicas.get(shard);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (int shard = 0; shard < primaries.size(); shard++) {
+            close(primaries.get(shard));
+            for (DataSource replica : replicas.get(shard)) {
+                close(replica);
+            }
+        }
+    }
+
+    private static void close(DataSource dataSource) throws IOException {
+        if (dataSource instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.yappyd.taskservice.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Maps users to shards. A username hashes to one of a fixed number of buckets, and the directory table on shard 0
+ * records which shard owns each bucket, so moving a bucket never rehashes anyone else. The table is the authority,
+ * shared by every instance; each instance routes by its own copy, loaded at startup and refreshed bucket by bucket
+ * whenever a fence shows that a bucket has moved.
+ * <p>
+ * Each shard also keeps a {@code task_bucket_fence} row for every bucket it owns. A transaction routed to a bucket
+ * checks, just before it commits, that its shard still has the row, and a write transaction locks it. A move deletes
+ * the row before copying anything, so it waits for writes that are about to commit, and no later write commits on
+ * the old shard. A call that finds the row gone rolls back, re-reads the bucket's owner and is retried there, which
+ * holds it back until the move is done. A stale copy therefore costs a retry, never a wrong result.
+ */
+@Slf4j
+@Component
+public class ShardDirectory {
+    private static final int BUCKET_BITS = 10;
+    public static final int BUCKETS = 1 << BUCKET_BITS;
+
+    private static final Duration MOVE_WAIT = Duration.ofSeconds(30);
+    private static final long RETRY_PAUSE_MILLIS = 10;
+    private static final String OWNER_QUERY = "SELECT shard FROM task_shard_bucket WHERE bucket = ?";
+    private static final String FENCE_QUERY = "SELECT bucket FROM task_bucket_fence WHERE bucket = ?";
+
+    private final ShardDataSources shardDataSources;
+    private final JdbcTemplate directory;
+    // On the routing data source, so the fence is checked on the connection of the transaction being committed.
+    private final JdbcTemplate routed;
+    private final int shardCount;
+    private final AtomicIntegerArray owners = new AtomicIntegerArray(BUCKETS);
+
+    public ShardDirectory(ShardDataSources shardDataSources, DataSource dataSource) {
+        this.shardDataSources = shardDataSources;
+        this.directory = new JdbcTemplate(shardDataSources.get(0));
+        this.routed = new JdbcTemplate(dataSource);
+        this.shardCount = shardDataSources.size();
+        load();
+    }
+
+    /**
+     * Stable across processes and JVMs: {@link String#hashCode} is specified, and Fibonacci hashing takes the top
+     * bits so similar usernames still spread out.
+     */
+    public static int bucketOf(String username) {
+        return (username.hashCode() * 0x9E3779B9) >>> (Integer.SIZE - BUCKET_BITS);
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public List<Integer> shards() {
+        return IntStream.range(0, shardCount).boxed().toList();
+    }
+
+    public List<Integer> buckets() {
+        return IntStream.range(0, BUCKETS).boxed().toList();
+    }
+
+    /**
+     * The owner of {@code bucket} as this instance last saw it.
+     */
+    public int ownerOf(int bucket) {
+        return owners.get(bucket);
+    }
+
+    /**
+     * The owner of every bucket as this instance last saw it, indexed by bucket.
+     */
+    public int[] owners() {
+        int[] snapshot = new int[BUCKETS];
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            snapshot[bucket] = owners.get(bucket);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Re-reads the owner of {@code bucket} from the directory.
+     */
+    public int refresh(int bucket) {
+        int owner = directory.queryForObject(OWNER_QUERY, Integer.class, bucket);
+        owners.set(bucket, owner);
+        return owner;
+    }
+
+    /**
+     * Re-reads the whole directory, for callers that plan moves or report on it.
+     */
+    public void refresh() {
+        directory.query("SELECT bucket, shard FROM task_shard_bucket", rs -> {
+            owners.set(rs.getInt(1), rs.getInt(2));
+        });
+    }
+
+    public int shardOf(String username) {
+        return ownerOf(bucketOf(username));
+    }
+
+    /**
+     * Runs {@code call} on the shard of {@code username}. Nested calls for the same bucket reuse the current route;
+     * switching buckets is only allowed outside a transaction, since the open one is already bound to a connection.
+     */
+    public <T, E extends Throwable> T callFor(String username, ShardCall<T, E> call) throws E {
+        return callFor(username, bucketOf(username), call);
+    }
+
+    /**
+     * Runs {@code call} on the shard owning {@code bucket}, for jobs that work through the table bucket by bucket
+     * and must see each bucket exactly once, wherever it is moved meanwhile.
+     */
+    public <T, E extends Throwable> T callForBucket(int bucket, ShardCall<T, E> call) throws E {
+        return callFor(null, bucket, call);
+    }
+
+    /**
+     * Runs {@code call} on {@code shard}, so writes of several users can share one transaction. Nothing checks the
+     * fences of their buckets for it: the transaction has to call {@link #fence} once it has written, and
+     * {@link BucketMovedException} means none of it was committed.
+     */
+    public <T, E extends Throwable> T callForBuckets(int shard, ShardCall<T, E> call) throws E {
+        if (ShardContext.current() != null) {
+            throw new IllegalStateException("Cannot route to shard " + shard + " from within a call routed to shard "
+                    + ShardContext.current().shard());
+        }
+        return ShardContext.callOn(shard, call);
+    }
+
+    /**
+     * Locks the fence rows of {@code buckets} on the shard of the current transaction until it ends, failing if the
+     * shard no longer owns any of them.
+     */
+    public void fence(Collection<Integer> buckets) {
+        for (int bucket : new TreeSet<>(buckets)) {
+            if (routed.queryForList(FENCE_QUERY + " FOR UPDATE", Integer.class, bucket).isEmpty()) {
+                throw new BucketMovedException(bucket, ShardContext.current().shard());
+            }
+        }
+    }
+
+    private <T, E extends Throwable> T callFor(String username, int bucket, ShardCall<T, E> call) throws E {
+        ShardContext.Route current = ShardContext.current();
+        if (current != null && current.bucket() == bucket) {
+            return call.call();
+        }
+        if (current != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot route " + (username != null ? "user " + username : "bucket " + bucket)
+                    + " from within a transaction on shard " + current.shard());
+        }
+        long deadline = System.nanoTime() + MOVE_WAIT.toNanos();
+        int owner = ownerOf(bucket);
+        while (true) {
+            try {
+                return ShardContext.callOn(new ShardContext.Route(username, bucket, owner), call);
+            } catch (BucketMovedException e) {
+                if (System.nanoTime() > deadline) {
+                    throw e;
+                }
+                int previous = owner;
+                owner = refresh(bucket);
+                if (owner == previous) {
+                    log.debug("Bucket {} is being moved, retrying", bucket);
+                    pause();
+                }
+            }
+        }
+    }
+
+    /**
+     * Called just before a transaction routed to a single bucket commits.
+     */
+    void checkFence(ShardContext.Route route, boolean readOnly) {
+        if (readOnly) {
+            if (routed.queryForList(FENCE_QUERY, Integer.class, route.bucket()).isEmpty()) {
+                throw new BucketMovedException(route.bucket(), route.shard());
+            }
+        } else {
+            fence(List.of(route.bucket()));
+        }
+    }
+
+    /**
+     * Runs {@code move} with the bucket's directory row locked, so moves of one bucket, from any instance, run one
+     * after another. {@code move} is given the current owner and returns the new one, which is recorded as it
+     * returns. Returns the previous owner.
+     */
+    int reassign(int bucket, IntUnaryOperator move) {
+        try (Connection connection = shardDataSources.get(0).getConnection()) {
+            connection.setAutoCommit(false);
+            JdbcTemplate locked = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            try {
+                int owner = locked.queryForObject(OWNER_QUERY + " FOR UPDATE", Integer.class, bucket);
+                int newOwner = move.applyAsInt(owner);
+                if (newOwner != owner) {
+                    locked.update("UPDATE task_shard_bucket SET shard = ? WHERE bucket = ?", newOwner, bucket);
+                }
+                connection.commit();
+                owners.set(bucket, newOwner);
+                return owner;
+            } catch (RuntimeException | Error e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to reassign bucket " + bucket, e);
+        }
+    }
+
+    /**
+     * Stops {@code shard} from committing anything for {@code bucket}, waiting for writes that are committing.
+     */
+    void closeFence(int shard, int bucket) {
+        new JdbcTemplate(shardDataSources.get(shard)).update("DELETE FROM task_bucket_fence WHERE bucket = ?", bucket);
+    }
+
+    void openFence(int shard, int bucket) {
+        new JdbcTemplate(shardDataSources.get(shard)).update("MERGE INTO task_bucket_fence (bucket) KEY (bucket) VALUES (?)", bucket);
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(RETRY_PAUSE_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a bucket move", e);
+        }
+    }
+
+    private void load() {
+        Integer assigned = directory.queryForObject("SELECT COUNT(*) FROM task_shard_bucket", Integer.class);
+        if (assigned == 0) {
+            List<Object[]> assignments = new ArrayList<>(BUCKETS);
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                assignments.add(new Object[]{bucket, bucket % shardCount});
+            }
+            directory.batchUpdate("INSERT INTO task_shard_bucket (bucket, shard) VALUES (?, ?)", assignments);
+            log.info("Initialized shard directory with {} buckets over {} shards", BUCKETS, shardCount);
+        } else if (assigned != BUCKETS) {
+            throw new IllegalStateException("Shard directory holds " + assigned + " buckets, expected " + BUCKETS);
+        }
+
+        refresh();
+        int[] owners = owners();
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            if (owners[bucket] >= shardCount) {
+                throw new IllegalStateException("Bucket " + bucket + " is assigned to shard " + owners[bucket]
+                        + " but only " + shardCount + " shards are configured");
+            }
+        }
+        // No fences anywhere: a new directory, or one that predates them.
+        boolean fenced = shards().stream().anyMatch(shard -> new JdbcTemplate(shardDataSources.get(shard))
+                .queryForObject("SELECT COUNT(*) FROM task_bucket_fence", Integer.class) > 0);
+        if (!fenced) {
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                openFence(owners[bucket], bucket);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.yappyd.taskservice.shard;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the username parameter a method is sharded by. The call runs against that user's shard, entered before any
+ * transaction or cache advice on the same method.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardKey {
+}
@@ -0,0 +1,153 @@
+package com.yappyd.taskservice.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Moves buckets between shards while the service keeps running, on any number of instances. A move locks the bucket's
+ * directory row, closes the bucket's fence on the source, clears whatever an unfinished earlier move left of the bucket
+ * on the target, copies the bucket's rows there and opens its fence, flips the directory and only then deletes the
+ * source rows. Calls for the bucket wait while it moves; users in other buckets are never blocked.
+ * <p>
+ * A crash before the flip leaves the directory pointing at the source, with the bucket's rows intact there but its
+ * fence closed: rerunning the move, to either shard, finishes it.
+ */
+@Slf4j
+@Service
+public class ShardRebalancer {
+    private static final int COPY_BATCH_SIZE = 500;
+    private static final String TASK_COLUMNS = "id, bucket, username, title, description, status, priority, deadline, version, completed_at";
+    private static final String ARCHIVE_COLUMNS = TASK_COLUMNS + ", archived_at";
+    private static final String VERSION_COLUMNS = "username, bucket, version";
+    private static final String REMINDER_SENT_COLUMNS = "task_id, deadline, bucket";
+    private static final List<String> TABLES = List.of("task", "task_archive", "user_task_version", "task_reminder_sent");
+
+    private final ShardDirectory shardDirectory;
+    private final ShardDataSources shardDataSources;
+
+    public ShardRebalancer(ShardDirectory shardDirectory, ShardDataSources shardDataSources) {
+        this.shardDirectory = shardDirectory;
+        this.shardDataSources = shardDataSources;
+    }
+
+    public BucketMove migrate(int bucket, int targetShard) {
+        if (bucket < 0 || bucket >= ShardDirectory.BUCKETS) {
+            throw new IllegalArgumentException("Unknown bucket " + bucket);
+        }
+        if (targetShard < 0 || targetShard >= shardDirectory.shardCount()) {
+            throw new IllegalArgumentException("Unknown shard " + targetShard);
+        }
+        return move(bucket, targetShard);
+    }
+
+    /**
+     * Evens out bucket ownership, e.g. after shards were added, moving as few buckets as possible.
+     */
+    public List<BucketMove> rebalance() {
+        List<BucketMove> moves = new ArrayList<>();
+        for (BucketMove planned : plan()) {
+            moves.add(move(planned.bucket(), planned.toShard()));
+        }
+        log.info("Rebalanced {} buckets over {} shards", moves.size(), shardDirectory.shardCount());
+        return moves;
+    }
+
+    List<BucketMove> plan() {
+        int shardCount = shardDirectory.shardCount();
+        List<Deque<Integer>> owned = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            owned.add(new ArrayDeque<>());
+        }
+        shardDirectory.refresh();
+        int[] owners = shardDirectory.owners();
+        for (int bucket = 0; bucket < ShardDirectory.BUCKETS; bucket++) {
+            owned.get(owners[bucket]).add(bucket);
+        }
+
+        Deque<BucketMove> surplus = new ArrayDeque<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            while (owned.get(shard).size() > target(shard, shardCount)) {
+                surplus.add(new BucketMove(owned.get(shard).removeLast(), shard, -1, 0));
+            }
+        }
+        List<BucketMove> moves = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int missing = target(shard, shardCount) - owned.get(shard).size(); missing > 0; missing--) {
+                BucketMove move = surplus.removeFirst();
+                moves.add(new BucketMove(move.bucket(), move.fromShard(), shard, 0));
+            }
+        }
+        return moves;
+    }
+
+    private static int target(int shard, int shardCount) {
+        return ShardDirectory.BUCKETS / shardCount + (shard < ShardDirectory.BUCKETS % shardCount ? 1 : 0);
+    }
+
+    private BucketMove move(int bucket, int targetShard) {
+        long started = System.currentTimeMillis();
+        long[] copied = {0};
+        int sourceShard = shardDirectory.reassign(bucket, owner -> {
+            if (owner == targetShard) {
+                shardDirectory.openFence(owner, bucket);
+                return owner;
+            }
+            shardDirectory.closeFence(owner, bucket);
+            // Left behind by an earlier move that was cut short; copied over, they could bring back deleted tasks.
+            shardDirectory.closeFence(targetShard, bucket);
+            JdbcTemplate target = new JdbcTemplate(shardDataSources.get(targetShard));
+            TABLES.forEach(table -> target.update("DELETE FROM " + table + " WHERE bucket = ?", bucket));
+            copied[0] = copy("task", TASK_COLUMNS, bucket, owner, targetShard)
+                    + copy("task_archive", ARCHIVE_COLUMNS, bucket, owner, targetShard);
+            copy("user_task_version", VERSION_COLUMNS, bucket, owner, targetShard);
+            copy("task_reminder_sent", REMINDER_SENT_COLUMNS, bucket, owner, targetShard);
+            shardDirectory.openFence(targetShard, bucket);
+            return targetShard;
+        });
+        if (sourceShard == targetShard) {
+            return new BucketMove(bucket, sourceShard, targetShard, 0);
+        }
+        JdbcTemplate source = new JdbcTemplate(shardDataSources.get(sourceShard));
+        TABLES.forEach(table -> source.update("DELETE FROM " + table + " WHERE bucket = ?", bucket));
+        log.info("Moved bucket {} with {} tasks from shard {} to shard {} in {} ms",
+                bucket, copied[0], sourceShard, targetShard, System.currentTimeMillis() - started);
+        return new BucketMove(bucket, sourceShard, targetShard, copied[0]);
+    }
+
+    private long copy(String table, String columns, int bucket, int sourceShard, int targetShard) {
+        JdbcTemplate source = new JdbcTemplate(shardDataSources.get(sourceShard));
+        source.setFetchSize(COPY_BATCH_SIZE);
+        JdbcTemplate target = new JdbcTemplate(shardDataSources.get(targetShard));
+        int columnCount = columns.split(",").length;
+        String insert = "INSERT INTO " + table + " (" + columns + ") VALUES (" + "?, ".repeat(columnCount - 1) + "?)";
+
+        List<Object[]> batch = new ArrayList<>(COPY_BATCH_SIZE);
+        long[] copied = {0};
+        source.query("SELECT " + columns + " FROM " + table + " WHERE bucket = ?", rs -> {
+            Object[] row = new Object[columnCount];
+            for (int column = 0; column < columnCount; column++) {
+                row[column] = rs.getObject(column + 1);
+            }
+            batch.add(row);
+            if (batch.size() == COPY_BATCH_SIZE) {
+                target.batchUpdate(insert, batch);
+                copied[0] += batch.size();
+                batch.clear();
+            }
+        }, bucket);
+        if (!batch.isEmpty()) {
+            target.batchUpdate(insert, batch);
+            copied[0] += batch.size();
+        }
+        return copied[0];
+    }
+
+    public record BucketMove(int bucket, int fromShard, int toShard, long tasks) {
+    }
+}
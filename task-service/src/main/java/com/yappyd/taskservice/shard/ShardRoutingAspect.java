@@ -0,0 +1,51 @@
+package com.yappyd.taskservice.shard;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Routes methods with a {@link ShardKey} parameter to that user's shard. Ordered between the cache advice and the
+ * transaction advice: cache hits skip routing, and the transaction opens on the right shard.
+ */
+@Aspect
+@Component
+@Order(ShardRoutingAspect.ORDER)
+public class ShardRoutingAspect {
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+
+    private final ShardDirectory shardDirectory;
+    private final ConcurrentMap<Method, Integer> keyIndexes = new ConcurrentHashMap<>();
+
+    public ShardRoutingAspect(ShardDirectory shardDirectory) {
+        this.shardDirectory = shardDirectory;
+    }
+
+    @Around("execution(* com.yappyd.taskservice..*(.., @com.yappyd.taskservice.shard.ShardKey (*), ..))")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        String username = (String) joinPoint.getArgs()[keyIndexes.computeIfAbsent(method, ShardRoutingAspect::keyIndex)];
+        return shardDirectory.callFor(username, joinPoint::proceed);
+    }
+
+    private static int keyIndex(Method method) {
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        for (int index = 0; index < parameterAnnotations.length; index++) {
+            for (Annotation annotation : parameterAnnotations[index]) {
+                if (annotation instanceof ShardKey) {
+                    return index;
+                }
+            }
+        }
+        throw new IllegalStateException("No @ShardKey parameter on " + method);
+    }
+}
@@ -0,0 +1,32 @@
+package com.yappyd.taskservice.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out connections of the shard in {@link ShardContext}. Routing happens when a connection is obtained, so the
+ * context has to be set before a transaction starts and stays fixed for its duration.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        ShardContext.Route route = ShardContext.current();
+        return route != null ? route.shard() : null;
+    }
+}
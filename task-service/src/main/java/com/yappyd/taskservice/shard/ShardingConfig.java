@@ -0,0 +1,128 @@
+package com.yappyd.taskservice.shard;
+
+import com.yappyd.taskservice.jdbc.QueryRecorder;
+import com.yappyd.taskservice.jdbc.QueryRecordingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+    public static final String MIGRATIONS = "classpath:db/migration";
+    // The bucket directory lives on shard 0 only.
+    public static final String DIRECTORY_MIGRATIONS = "classpath:db/directory";
+
+    /**
+     * Each shard draws ids from its own range of the task sequence, so ids stay unique when users move between
+     * shards. 2^40 ids per shard keeps thousands of shards below 2^53, where JSON clients start losing precision.
+     */
+    public static final long ID_RANGE_PER_SHARD = 1L << 40;
+
+    // Must match the allocationSize of the task id generator.
+    private static final int ID_BLOCK_SIZE = 50;
+    private static final String HIKARI_PROPERTIES = "spring.datasource.hikari";
+
+    @Bean
+    public ShardDataSources shardDataSources(ShardingProperties shardingProperties, DataSourceProperties dataSourceProperties,
+                                             Environment environment, MeterRegistry meterRegistry,
+                                             QueryRecorder queryRecorder) {
+        Binder binder = Binder.get(environment);
+        // The pools are not beans, so Spring Boot does not bind their metrics; they report as hikaricp.* tagged by pool.
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+        List<DataSource> primaries = new ArrayList<>();
+        List<List<DataSource>> replicas = new ArrayList<>();
+        if (shardingProperties.shards().isEmpty()) {
+            HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            binder.bind(HIKARI_PROPERTIES, Bindable.ofInstance(dataSource));
+            dataSource.setMetricsTrackerFactory(metrics);
+            primaries.add(dataSource);
+            replicas.add(List.of());
+        }
+        for (ShardingProperties.Shard shard : shardingProperties.shards()) {
+            String name = "task-shard-" + primaries.size();
+            primaries.add(pool(binder, metrics, name, shard.url(), shard.username(), shard.password()));
+            List<DataSource> shardReplicas = new ArrayList<>();
+            for (ShardingProperties.Replica replica : shard.replicas()) {
+                shardReplicas.add(pool(binder, metrics, name + "-replica-" + shardReplicas.size(), replica.url(), replica.username(), replica.password()));
+            }
+            replicas.add(shardReplicas);
+        }
+
+        for (int shard = 0; shard < primaries.size(); shard++) {
+            flyway(primaries.get(shard), shard).migrate();
+        }
+        // Wrapped after migrating, so only the statements the service itself runs are timed and counted.
+        return new ShardDataSources(
+                primaries.stream().map(dataSource -> recorded(dataSource, queryRecorder)).toList(),
+                replicas.stream().map(shard -> shard.stream().map(dataSource -> recorded(dataSource, queryRecorder)).toList()).toList());
+    }
+
+    /**
+     * Connections are fetched lazily, on the first statement rather than when a transaction begins, so both the shard
+     * and whether the transaction is read-only are settled by the time a primary or replica is picked.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardDataSources shardDataSources) {
+        List<DataSource> shards = new ArrayList<>();
+        for (int shard = 0; shard < shardDataSources.size(); shard++) {
+            List<DataSource> replicas = shardDataSources.replicas(shard);
+            shards.add(replicas.isEmpty()
+                    ? shardDataSources.get(shard)
+                    : new ReplicaRoutingDataSource(shardDataSources.get(shard), replicas));
+        }
+        return new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(shards));
+    }
+
+    /**
+     * Flyway for one shard's primary. Spring Boot's own Flyway bean is switched off, as it would only see the routing
+     * data source.
+     */
+    public static Flyway flyway(DataSource dataSource, int shard) {
+        // Offset by one block: the first block handed out is the one ending at the sequence's start value.
+        long sequenceStart = shard * ID_RANGE_PER_SHARD + ID_BLOCK_SIZE;
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations(shard == 0 ? new String[]{MIGRATIONS, DIRECTORY_MIGRATIONS} : new String[]{MIGRATIONS})
+                .placeholders(Map.of("sequence_start", Long.toString(sequenceStart)))
+                .load();
+    }
+
+    private static DataSource recorded(DataSource dataSource, QueryRecorder queryRecorder) {
+        return new QueryRecordingDataSource(dataSource, queryRecorder);
+    }
+
+    /**
+     * Every pool, shard or replica, takes its tuning from {@code spring.datasource.hikari}.
+     */
+    private static HikariDataSource pool(Binder binder, MicrometerMetricsTrackerFactory metrics, String name, String url,
+                                         String username, String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        binder.bind(HIKARI_PROPERTIES, Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(name);
+        dataSource.setMetricsTrackerFactory(metrics);
+        return dataSource;
+    }
+}
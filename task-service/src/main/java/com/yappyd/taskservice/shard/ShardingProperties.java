@@ -0,0 +1,28 @@
+package com.yappyd.taskservice.shard;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Task shards, in order; a shard's position is its number and must not change once it holds data. With no shards
+ * configured, {@code spring.datasource} is the only shard. Each shard may list read replicas that read-only
+ * transactions are spread over.
+ */
+@ConfigurationProperties("task.sharding")
+public record ShardingProperties(List<Shard> shards) {
+
+    public ShardingProperties {
+        shards = shards != null ? List.copyOf(shards) : List.of();
+    }
+
+    public record Shard(String url, String username, String password, List<Replica> replicas) {
+
+        public Shard {
+            replicas = replicas != null ? List.copyOf(replicas) : List.of();
+        }
+    }
+
+    public record Replica(String url, String username, String password) {
+    }
+}
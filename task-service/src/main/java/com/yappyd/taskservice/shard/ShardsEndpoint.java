@@ -0,0 +1,48 @@
+package com.yappyd.taskservice.shard;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Operator entry point for resharding: {@code GET} lists how many buckets each shard owns, {@code POST} rebalances
+ * them and {@code POST /{bucket}/{shard}} moves a single bucket. Not exposed over HTTP by default.
+ */
+@Component
+@Endpoint(id = "shards")
+public class ShardsEndpoint {
+    private final ShardDirectory shardDirectory;
+    private final ShardRebalancer shardRebalancer;
+
+    public ShardsEndpoint(ShardDirectory shardDirectory, ShardRebalancer shardRebalancer) {
+        this.shardDirectory = shardDirectory;
+        this.shardRebalancer = shardRebalancer;
+    }
+
+    @ReadOperation
+    public Map<Integer, Integer> buckets() {
+        Map<Integer, Integer> buckets = new TreeMap<>();
+        shardDirectory.shards().forEach(shard -> buckets.put(shard, 0));
+        shardDirectory.refresh();
+        for (int owner : shardDirectory.owners()) {
+            buckets.merge(owner, 1, Integer::sum);
+        }
+        return buckets;
+    }
+
+    @WriteOperation
+    public List<ShardRebalancer.BucketMove> rebalance() {
+        return shardRebalancer.rebalance();
+    }
+
+    @WriteOperation
+    public ShardRebalancer.BucketMove migrate(@Selector int bucket, @Selector int shard) {
+        return shardRebalancer.migrate(bucket, shard);
+    }
+}
@@ -0,0 +1,145 @@
+package com.yappyd.taskservice.startup;
+
+import com.yappyd.taskservice.reminder.TaskReminderScheduler;
+import com.yappyd.taskservice.search.TaskSearchIndexer;
+import com.yappyd.taskservice.service.TaskStatisticsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rebuilds the search index, statistics counters and reminder window in parallel once the application is ready; the
+ * readiness group waits for them through {@link WarmupHealthIndicator}. A failed warmup is retried with a doubling
+ * pause, and the warmup threads are interrupted when the context closes, before the data sources they read go away.
+ */
+@Slf4j
+@Component
+public class StartupWarmup implements SmartLifecycle {
+    private final Map<String, Runnable> warmups = new LinkedHashMap<>();
+    private final Map<String, Long> durations = new ConcurrentHashMap<>();
+    private final Set<String> failing = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger remaining = new AtomicInteger();
+    private final List<Thread> threads = new CopyOnWriteArrayList<>();
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration stopTimeout;
+    private volatile boolean running;
+
+    public StartupWarmup(TaskSearchIndexer taskSearchIndexer, TaskStatisticsService taskStatisticsService,
+                         TaskReminderScheduler taskReminderScheduler,
+                         @Value("${task.warmup.initial-backoff:1s}") Duration initialBackoff,
+                         @Value("${task.warmup.max-backoff:1m}") Duration maxBackoff,
+                         @Value("${task.warmup.stop-timeout:10s}") Duration stopTimeout) {
+        warmups.put("search-index", taskSearchIndexer::rebuild);
+        warmups.put("statistics", taskStatisticsService::reconcile);
+        warmups.put("reminders", taskReminderScheduler::extendWindow);
+        remaining.set(warmups.size());
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.stopTimeout = stopTimeout;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        log.info("Accepting requests {} ms after JVM start, warming up {}", sinceJvmStart(), warmups.keySet());
+        // One thread each rather than the application task executor, which exports and imports share.
+        warmups.forEach((name, warmup) -> {
+            Thread thread = new Thread(() -> run(name, warmup), "startup-warmup-" + name);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        });
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        threads.forEach(Thread::interrupt);
+        long deadline = System.nanoTime() + stopTimeout.toNanos();
+        try {
+            for (Thread thread : threads) {
+                long leftMillis = (deadline - System.nanoTime()) / 1_000_000;
+                if (leftMillis > 0) {
+                    thread.join(leftMillis);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        threads.removeIf(thread -> !thread.isAlive());
+        if (!threads.isEmpty()) {
+            log.warn("Startup warmups still running after {}: {}", stopTimeout, threads);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean isComplete() {
+        return remaining.get() == 0;
+    }
+
+    /**
+     * Whether a warmup's last attempt failed; it is retried until it succeeds or the context closes.
+     */
+    public boolean hasFailed() {
+        return !failing.isEmpty();
+    }
+
+    public Map<String, Long> durations() {
+        return Map.copyOf(durations);
+    }
+
+    private void run(String name, Runnable warmup) {
+        long started = System.currentTimeMillis();
+        Duration backoff = initialBackoff;
+        for (int attempt = 1; running; attempt++) {
+            try {
+                warmup.run();
+                failing.remove(name);
+                durations.put(name, System.currentTimeMillis() - started);
+                if (remaining.decrementAndGet() == 0) {
+                    log.info("Warmed up {} ms after JVM start, took {} ms per warmup", sinceJvmStart(), durations);
+                }
+                return;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    log.debug("Startup warmup {} stopped with the application", name, e);
+                    return;
+                }
+                failing.add(name);
+                log.error("Startup warmup {} failed on attempt {}, retrying in {}", name, attempt, backoff, e);
+            }
+            try {
+                Thread.sleep(backoff.toMillis());
+            } catch (InterruptedException e) {
+                return;
+            }
+            backoff = backoff.multipliedBy(2).compareTo(maxBackoff) > 0 ? maxBackoff : backoff.multipliedBy(2);
+        }
+    }
+
+    private static long sinceJvmStart() {
+        return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+}
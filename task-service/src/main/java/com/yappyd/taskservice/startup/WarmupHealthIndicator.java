@@ -0,0 +1,27 @@
+package com.yappyd.taskservice.startup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+    private final StartupWarmup startupWarmup;
+
+    public WarmupHealthIndicator(StartupWarmup startupWarmup) {
+        this.startupWarmup = startupWarmup;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder;
+        if (startupWarmup.hasFailed()) {
+            builder = Health.down();
+        } else if (startupWarmup.isComplete()) {
+            builder = Health.up();
+        } else {
+            builder = Health.outOfService();
+        }
+        return builder.withDetails(startupWarmup.durations()).build();
+    }
+}
@@ -0,0 +1,4 @@
+CREATE TABLE task_shard_bucket (
+    bucket INTEGER NOT NULL PRIMARY KEY,
+    shard  INTEGER NOT NULL
+);
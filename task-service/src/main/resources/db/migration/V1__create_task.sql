@@ -0,0 +1,19 @@
+CREATE SEQUENCE task_seq START WITH ${sequence_start} INCREMENT BY 50;
+
+CREATE TABLE task (
+    id          BIGINT       NOT NULL PRIMARY KEY,
+    bucket      INTEGER      NOT NULL,
+    username    VARCHAR(50)  NOT NULL,
+    title       VARCHAR(200) NOT NULL,
+    description TEXT,
+    status      VARCHAR(255) NOT NULL,
+    priority    VARCHAR(255) NOT NULL,
+    deadline    DATE,
+    version     BIGINT
+);
+
+CREATE INDEX idx_task_username_deadline_id ON task (username, deadline, id);
+CREATE INDEX idx_task_username_status_deadline ON task (username, status, deadline);
+CREATE INDEX idx_task_username_priority_deadline ON task (username, priority, deadline);
+CREATE INDEX idx_task_deadline ON task (deadline);
+CREATE INDEX idx_task_bucket ON task (bucket);
@@ -0,0 +1,24 @@
+ALTER TABLE task ADD COLUMN completed_at TIMESTAMP WITH TIME ZONE;
+
+-- Completion times were not recorded before, so tasks already done start ageing now.
+UPDATE task SET completed_at = CURRENT_TIMESTAMP WHERE status = 'DONE';
+
+DROP INDEX idx_task_bucket;
+CREATE INDEX idx_task_bucket_status_completed_at ON task (bucket, status, completed_at);
+
+CREATE TABLE task_archive (
+    id           BIGINT                   NOT NULL PRIMARY KEY,
+    bucket       INTEGER                  NOT NULL,
+    username     VARCHAR(50)              NOT NULL,
+    title        VARCHAR(200)             NOT NULL,
+    description  TEXT,
+    status       VARCHAR(255)             NOT NULL,
+    priority     VARCHAR(255)             NOT NULL,
+    deadline     DATE,
+    version      BIGINT,
+    completed_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    archived_at  TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_task_archive_username_completed_at_id ON task_archive (username, completed_at, id);
+CREATE INDEX idx_task_archive_bucket ON task_archive (bucket);
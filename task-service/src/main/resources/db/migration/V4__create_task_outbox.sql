@@ -0,0 +1,8 @@
+CREATE TABLE task_outbox (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username   VARCHAR(50)              NOT NULL,
+    task_id    BIGINT                   NOT NULL,
+    type       VARCHAR(20)              NOT NULL,
+    payload    TEXT                     NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,7 @@
+CREATE TABLE user_task_version (
+    username VARCHAR(50) NOT NULL PRIMARY KEY,
+    bucket   INTEGER     NOT NULL,
+    version  BIGINT      NOT NULL
+);
+
+CREATE INDEX idx_user_task_version_bucket ON user_task_version (bucket);
@@ -0,0 +1,8 @@
+-- A NULL version made version arithmetic yield NULL in SQL and fail when unboxed in Java.
+UPDATE task SET version = 0 WHERE version IS NULL;
+ALTER TABLE task ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE task ALTER COLUMN version SET NOT NULL;
+
+UPDATE task_archive SET version = 0 WHERE version IS NULL;
+ALTER TABLE task_archive ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE task_archive ALTER COLUMN version SET NOT NULL;
@@ -0,0 +1,6 @@
+-- A single row; whoever holds its row lock is the one instance draining this shard's outbox.
+CREATE TABLE task_outbox_lock (
+    id INT PRIMARY KEY
+);
+
+INSERT INTO task_outbox_lock (id) VALUES (0);
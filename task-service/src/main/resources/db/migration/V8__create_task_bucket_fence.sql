@@ -0,0 +1,5 @@
+-- The buckets this shard owns. Every transaction routed to a bucket checks its row just before committing, writes
+-- under a row lock; moving a bucket away deletes the row first, so nothing commits here once a move has started.
+CREATE TABLE task_bucket_fence (
+    bucket INTEGER NOT NULL PRIMARY KEY
+);
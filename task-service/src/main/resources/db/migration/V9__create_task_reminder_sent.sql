@@ -0,0 +1,10 @@
+-- Reminders already delivered, claimed by the instance that delivers them so no other instance sends them again.
+CREATE TABLE task_reminder_sent (
+    task_id  BIGINT  NOT NULL,
+    deadline DATE    NOT NULL,
+    bucket   INTEGER NOT NULL,
+    PRIMARY KEY (task_id, deadline)
+);
+
+CREATE INDEX idx_task_reminder_sent_bucket ON task_reminder_sent (bucket);
+CREATE INDEX idx_task_reminder_sent_deadline ON task_reminder_sent (deadline);
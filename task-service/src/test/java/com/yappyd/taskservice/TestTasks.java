@@ -0,0 +1,24 @@
+package com.yappyd.taskservice;
+
+import com.yappyd.taskservice.dto.TaskCreateRequest;
+import com.yappyd.taskservice.model.Task.*;
+
+import java.time.LocalDate;
+
+/**
+ * Task requests for the integration tests.
+ */
+public final class TestTasks {
+    public static final LocalDate DEADLINE = LocalDate.of(2030, 1, 1);
+
+    private TestTasks() {
+    }
+
+    public static TaskCreateRequest request(String title) {
+        return request(title, TaskStatus.TODO);
+    }
+
+    public static TaskCreateRequest request(String title, TaskStatus status) {
+        return new TaskCreateRequest(title, null, TaskPriority.MEDIUM, status, DEADLINE);
+    }
+}
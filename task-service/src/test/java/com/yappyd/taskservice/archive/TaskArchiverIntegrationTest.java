@@ -0,0 +1,92 @@
+package com.yappyd.taskservice.archive;
+
+import com.yappyd.taskservice.dto.ArchivedTaskResponse;
+import com.yappyd.taskservice.dto.TaskFilter;
+import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.dto.TaskUpdateRequest;
+import com.yappyd.taskservice.model.Task.*;
+import com.yappyd.taskservice.service.TaskArchiveService;
+import com.yappyd.taskservice.service.TaskService;
+import com.yappyd.taskservice.service.TaskStatisticsService;
+import com.yappyd.taskservice.shard.ShardDataSources;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static com.yappyd.taskservice.TestTasks.request;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TaskArchiverIntegrationTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskArchiveService taskArchiveService;
+
+    @Autowired
+    private TaskStatisticsService taskStatisticsService;
+
+    @Autowired
+    private TaskArchiver taskArchiver;
+
+    @Autowired
+    private ShardDataSources shardDataSources;
+
+    @Test
+    void shouldMoveOldDoneTasksToArchive() {
+        String username = "archived";
+        TaskResponse open = taskService.createTask(request("open", TaskStatus.TODO), username);
+        TaskResponse recent = taskService.createTask(request("recent", TaskStatus.DONE), username);
+        List<TaskResponse> old = taskService.createTasks(List.of(
+                request("old1", TaskStatus.DONE), request("old2", TaskStatus.DONE), request("old3", TaskStatus.DONE)), username);
+        old.forEach(task -> completedDaysAgo(task.id(), 40));
+
+        assertTrue(taskArchiver.archive() >= 3);
+
+        List<Long> hot = taskService.getTasks(username, TaskFilter.NONE, Pageable.unpaged()).map(TaskResponse::id).getContent();
+        assertEquals(List.of(open.id(), recent.id()), hot.stream().sorted().toList());
+        Page<ArchivedTaskResponse> archived = taskArchiveService.getArchivedTasks(username, 0, 10);
+        assertEquals(3, archived.getTotalElements());
+        assertEquals(old.stream().map(TaskResponse::id).sorted().toList(),
+                archived.map(ArchivedTaskResponse::id).getContent().stream().sorted().toList());
+        assertEquals(2, taskStatisticsService.getStats(username).total());
+        assertEquals(0, taskArchiver.archive());
+    }
+
+    @Test
+    void shouldTrackCompletionAcrossUpdates() {
+        String username = "completing";
+        TaskResponse task = taskService.createTask(request("task", TaskStatus.TODO), username);
+        assertNull(completedAt(task.id()));
+
+        taskService.updateTask(task.id(), new TaskUpdateRequest(null, null, null, TaskStatus.DONE, null), username, null);
+        OffsetDateTime completed = completedAt(task.id());
+        assertNotNull(completed);
+
+        taskService.updateTask(task.id(), new TaskUpdateRequest("renamed", null, null, null, null), username, null);
+        assertEquals(completed, completedAt(task.id()));
+
+        taskService.updateTask(task.id(), new TaskUpdateRequest(null, null, null, TaskStatus.IN_PROGRESS, null), username, null);
+        assertNull(completedAt(task.id()));
+    }
+
+    private void completedDaysAgo(Long id, int days) {
+        jdbcTemplate().update("UPDATE task SET completed_at = ? WHERE id = ?", OffsetDateTime.now().minusDays(days), id);
+    }
+
+    private OffsetDateTime completedAt(Long id) {
+        return jdbcTemplate().queryForObject("SELECT completed_at FROM task WHERE id = ?", OffsetDateTime.class, id);
+    }
+
+    private JdbcTemplate jdbcTemplate() {
+        return new JdbcTemplate(shardDataSources.get(0));
+    }
+}
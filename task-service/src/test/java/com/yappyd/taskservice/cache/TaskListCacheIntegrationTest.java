@@ -0,0 +1,67 @@
+package com.yappyd.taskservice.cache;
+
+import com.yappyd.taskservice.dto.TaskFilter;
+import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.jdbc.QueryRecorder;
+import com.yappyd.taskservice.service.TaskService;
+import com.yappyd.taskservice.service.UserTaskVersions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Collections;
+import java.util.List;
+
+import static com.yappyd.taskservice.TestTasks.request;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TaskListCacheIntegrationTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserTaskVersions userTaskVersions;
+
+    @Autowired
+    private QueryRecorder queryRecorder;
+
+    @Test
+    void shouldServeFreshPagesOnlyToTheUserWhoseTasksChanged() {
+        taskService.createTask(request("mine"), "changed");
+        taskService.createTask(request("theirs"), "untouched");
+        taskService.getTasks("changed", TaskFilter.NONE, PageRequest.of(0, 10));
+        Page<TaskResponse> untouched = taskService.getTasks("untouched", TaskFilter.NONE, PageRequest.of(0, 10));
+
+        taskService.createTasks(List.of(request("first"), request("second"), request("third")), "changed");
+
+        assertEquals(4, taskService.getTasks("changed", TaskFilter.NONE, PageRequest.of(0, 10)).getTotalElements());
+        assertSame(untouched, taskService.getTasks("untouched", TaskFilter.NONE, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void shouldAnswerAnUnchangedPollFromMemory() {
+        taskService.createTask(request("polled"), "poller");
+        userTaskVersions.etag("poller");
+        taskService.getTasks("poller", TaskFilter.NONE, PageRequest.of(0, 10));
+
+        QueryRecorder.RequestQueries queries;
+        try (QueryRecorder.RequestQueries started = queryRecorder.startRequest()) {
+            queries = started;
+            userTaskVersions.etag("poller");
+            taskService.getTasks("poller", TaskFilter.NONE, PageRequest.of(0, 10));
+        }
+
+        assertEquals(0, queries.count());
+    }
+
+    @Test
+    void shouldBumpTheVersionOncePerTransaction() {
+        taskService.createTasks(Collections.nCopies(500, request("batched")), "batcher");
+
+        assertEquals(1, userTaskVersions.current("batcher"));
+    }
+}
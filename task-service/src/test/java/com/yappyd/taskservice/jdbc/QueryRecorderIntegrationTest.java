@@ -0,0 +1,67 @@
+package com.yappyd.taskservice.jdbc;
+
+import com.yappyd.taskservice.service.TaskService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static com.yappyd.taskservice.TestTasks.request;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class QueryRecorderIntegrationTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private QueryRecorder queryRecorder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldCountTheStatementsOfARequest() {
+        long id = taskService.createTask(request("counted"), "counter").id();
+        long selectsBefore = selects();
+
+        QueryRecorder.RequestQueries queries;
+        try (QueryRecorder.RequestQueries started = queryRecorder.startRequest()) {
+            queries = started;
+            taskService.getTask(id, "counter");
+        }
+        int count = queries.count();
+        assertTrue(count > 0);
+        // Scheduled jobs of the context run statements too, so the timer has at least the request's selects.
+        assertTrue(selects() >= selectsBefore + count);
+
+        taskService.getTask(id, "counter");
+        assertEquals(count, queries.count());
+    }
+
+    @Test
+    void shouldReportTheCountInAHeaderWhenEnabled() throws Exception {
+        long id = taskService.createTask(request("headed"), "header").id();
+        QueryCountFilter filter = new QueryCountFilter(queryRecorder, meterRegistry, 20, true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks/" + id);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            taskService.getTask(id, "header");
+            res.getWriter().write("{}");
+        });
+
+        assertTrue(Integer.parseInt(response.getHeader(QueryCountFilter.COUNT_HEADER)) > 0);
+        assertNotNull(response.getHeader(QueryCountFilter.TIME_HEADER));
+        assertEquals(1, meterRegistry.get("task.request.queries").tag("method", "GET").tag("uri", "UNKNOWN").summary().count());
+    }
+
+    private long selects() {
+        Timer timer = meterRegistry.find("task.query").tag("type", "select").timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
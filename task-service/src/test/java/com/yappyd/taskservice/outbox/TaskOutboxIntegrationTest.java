@@ -0,0 +1,112 @@
+package com.yappyd.taskservice.outbox;
+
+import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.dto.TaskUpdateRequest;
+import com.yappyd.taskservice.event.TaskChangedEvent.ChangeType;
+import com.yappyd.taskservice.exception.TaskVersionConflictException;
+import com.yappyd.taskservice.service.TaskService;
+import com.yappyd.taskservice.shard.ShardDataSources;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static com.yappyd.taskservice.TestTasks.request;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TaskOutboxIntegrationTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskOutboxPublisher taskOutboxPublisher;
+
+    @Autowired
+    private InMemoryOutboxSink outboxSink;
+
+    @Autowired
+    private ShardDataSources shardDataSources;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ThreadPoolTaskScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        taskOutboxPublisher.drain();
+        outboxSink.clear();
+    }
+
+    @Test
+    void shouldPublishEveryCommittedChangeInOrder() {
+        String username = "outboxed";
+        double publishedBefore = meterRegistry.counter("task.outbox.published").count();
+        TaskResponse task = taskService.createTask(request("first"), username);
+        taskService.createTasks(List.of(request("second"), request("third")), username);
+        taskService.updateTask(task.id(), new TaskUpdateRequest("renamed", null, null, null, null), username, null);
+        taskService.deleteTask(task.id(), username);
+        assertEquals(5, pending());
+
+        assertEquals(5, taskOutboxPublisher.drain());
+
+        List<OutboxMessage> messages = outboxSink.getMessages();
+        assertEquals(List.of(ChangeType.CREATED, ChangeType.CREATED, ChangeType.CREATED, ChangeType.UPDATED, ChangeType.DELETED),
+                messages.stream().map(OutboxMessage::type).toList());
+        assertTrue(messages.get(3).payload().contains("\"title\":\"renamed\""));
+        assertEquals(messages.stream().map(OutboxMessage::id).sorted().toList(), messages.stream().map(OutboxMessage::id).toList());
+        assertEquals(0, pending());
+        assertEquals(5, meterRegistry.counter("task.outbox.published").count() - publishedBefore);
+    }
+
+    @Test
+    void shouldNotRecordRolledBackChanges() {
+        String username = "rolledback";
+        TaskResponse task = taskService.createTask(request("task"), username);
+        taskOutboxPublisher.drain();
+        outboxSink.clear();
+
+        assertThrows(TaskVersionConflictException.class, () -> taskService.updateTask(task.id(),
+                new TaskUpdateRequest("stale", null, null, null, null), username, task.version() + 1));
+
+        assertEquals(0, pending());
+        assertEquals(0, taskOutboxPublisher.drain());
+        assertTrue(outboxSink.getMessages().isEmpty());
+    }
+
+    @Test
+    void shouldSkipShardWhileAnotherInstanceDrainsIt() throws SQLException {
+        taskService.createTask(request("locked"), "outboxlocked");
+
+        try (Connection otherInstance = shardDataSources.get(0).getConnection()) {
+            otherInstance.setAutoCommit(false);
+            otherInstance.createStatement().executeQuery("SELECT id FROM task_outbox_lock FOR UPDATE").close();
+
+            assertEquals(0, taskOutboxPublisher.drain());
+            assertEquals(1, pending());
+            otherInstance.rollback();
+        }
+
+        assertEquals(1, taskOutboxPublisher.drain());
+        assertEquals(0, pending());
+    }
+
+    @Test
+    void shouldUseSeparateSchedulerThreads() {
+        assertEquals(4, scheduler.getScheduledThreadPoolExecutor().getCorePoolSize());
+    }
+
+    private int pending() {
+        return new JdbcTemplate(shardDataSources.get(0)).queryForObject("SELECT COUNT(*) FROM task_outbox", Integer.class);
+    }
+}
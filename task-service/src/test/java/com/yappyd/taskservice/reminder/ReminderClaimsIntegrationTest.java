@@ -0,0 +1,60 @@
+package com.yappyd.taskservice.reminder;
+
+import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.dto.TaskUpdateRequest;
+import com.yappyd.taskservice.model.Task.*;
+import com.yappyd.taskservice.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static com.yappyd.taskservice.TestTasks.DEADLINE;
+import static com.yappyd.taskservice.TestTasks.request;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ReminderClaimsIntegrationTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ReminderClaims reminderClaims;
+
+    @Test
+    void shouldLetOnlyOneInstanceClaimAReminder() {
+        TaskResponse task = taskService.createTask(request("claimed"), "claimer");
+        TaskReminder reminder = new TaskReminder(task.id(), "claimer", "claimed", DEADLINE);
+
+        assertEquals(reminder, reminderClaims.claim(reminder, DEADLINE));
+        assertNull(reminderClaims.claim(reminder, DEADLINE));
+    }
+
+    @Test
+    void shouldCheckTheTaskAsItStandsNow() {
+        TaskResponse done = taskService.createTask(request("done"), "rechecker");
+        taskService.updateTask(done.id(), new TaskUpdateRequest(null, null, null, TaskStatus.DONE, null), "rechecker", null);
+        TaskResponse deleted = taskService.createTask(request("deleted"), "rechecker");
+        taskService.deleteTask(deleted.id(), "rechecker");
+        TaskResponse moved = taskService.createTask(request("moved"), "rechecker");
+        taskService.updateTask(moved.id(), new TaskUpdateRequest("renamed", null, null, null, DEADLINE.plusDays(3)), "rechecker", null);
+
+        assertNull(reminderClaims.claim(new TaskReminder(done.id(), "rechecker", "done", DEADLINE), DEADLINE));
+        assertNull(reminderClaims.claim(new TaskReminder(deleted.id(), "rechecker", "deleted", DEADLINE), DEADLINE));
+        TaskReminder current = new TaskReminder(moved.id(), "rechecker", "renamed", DEADLINE.plusDays(3));
+        assertEquals(current, reminderClaims.claim(new TaskReminder(moved.id(), "rechecker", "moved", DEADLINE), DEADLINE));
+        // Not claimed while it is not due yet.
+        assertEquals(current, reminderClaims.claim(current, DEADLINE.plusDays(3)));
+    }
+
+    @Test
+    void shouldForgetClaimsOfPastDeadlines() {
+        TaskResponse task = taskService.createTask(request("past"), "forgetter");
+        TaskReminder reminder = new TaskReminder(task.id(), "forgetter", "past", DEADLINE);
+        reminderClaims.claim(reminder, DEADLINE);
+
+        reminderClaims.forgetBefore(DEADLINE.plusDays(1));
+
+        assertEquals(reminder, reminderClaims.claim(reminder, DEADLINE));
+    }
+}
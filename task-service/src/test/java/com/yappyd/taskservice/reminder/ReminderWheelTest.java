@@ -0,0 +1,58 @@
+package com.yappyd.taskservice.reminder;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReminderWheelTest {
+
+    private final ReminderWheel wheel = new ReminderWheel();
+
+    @Test
+    void shouldPollRemindersDueThroughDateInDeadlineOrder() {
+        wheel.schedule(reminder(1L, LocalDate.of(2025, 10, 12)));
+        wheel.schedule(reminder(2L, LocalDate.of(2025, 10, 10)));
+        wheel.schedule(reminder(3L, LocalDate.of(2025, 10, 11)));
+
+        assertEquals(LocalDate.of(2025, 10, 10), wheel.nextDeadline());
+        List<TaskReminder> due = wheel.pollThrough(LocalDate.of(2025, 10, 11));
+
+        assertEquals(List.of(2L, 3L), due.stream().map(TaskReminder::taskId).toList());
+        assertEquals(1, wheel.size());
+        assertEquals(LocalDate.of(2025, 10, 12), wheel.nextDeadline());
+    }
+
+    @Test
+    void shouldMoveRescheduledReminderAndForgetCancelledOne() {
+        wheel.schedule(reminder(1L, LocalDate.of(2025, 10, 10)));
+        wheel.schedule(reminder(1L, LocalDate.of(2025, 10, 15)));
+        wheel.schedule(reminder(2L, LocalDate.of(2025, 10, 11)));
+        wheel.cancel(2L);
+        wheel.cancel(99L);
+
+        assertEquals(1, wheel.size());
+        assertEquals(LocalDate.of(2025, 10, 15), wheel.nextDeadline());
+        assertTrue(wheel.pollThrough(LocalDate.of(2025, 10, 14)).isEmpty());
+    }
+
+    @Test
+    void shouldTrimWholeDaysFromFarEndButKeepEarliestDay() {
+        wheel.schedule(reminder(1L, LocalDate.of(2025, 10, 10)));
+        wheel.schedule(reminder(2L, LocalDate.of(2025, 10, 10)));
+        wheel.schedule(reminder(3L, LocalDate.of(2025, 10, 11)));
+        wheel.schedule(reminder(4L, LocalDate.of(2025, 10, 12)));
+
+        assertEquals(LocalDate.of(2025, 10, 11), wheel.trimTo(2));
+        assertEquals(2, wheel.size());
+        assertNull(wheel.trimTo(2));
+        assertNull(wheel.trimTo(1));
+        assertEquals(2, wheel.size());
+    }
+
+    private static TaskReminder reminder(Long taskId, LocalDate deadline) {
+        return new TaskReminder(taskId, "testuser", "Task " + taskId, deadline);
+    }
+}
@@ -0,0 +1,157 @@
+package com.yappyd.taskservice.reminder;
+
+import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.event.TaskChangedEvent;
+import com.yappyd.taskservice.model.Task.*;
+import com.yappyd.taskservice.repository.TaskRepository;
+import com.yappyd.taskservice.shard.ShardCall;
+import com.yappyd.taskservice.shard.ShardDirectory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskReminderSchedulerTest {
+    private static final LocalDate TODAY = LocalDate.of(2025, 10, 10);
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ShardDirectory shardDirectory;
+
+    @Mock
+    private ReminderClaims reminderClaims;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final InMemoryReminderSink reminderSink = new InMemoryReminderSink();
+    private TaskReminderScheduler reminderScheduler;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(shardDirectory.buckets()).thenReturn(List.of(0));
+        lenient().when(shardDirectory.callForBucket(eq(0), any())).thenAnswer(invocation -> invocation.<ShardCall<?, ?>>getArgument(1).call());
+        Clock clock = Clock.fixed(TODAY.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC);
+        reminderScheduler = new TaskReminderScheduler(taskRepository, shardDirectory, reminderSink, reminderClaims, taskScheduler, clock,
+                transactionManager);
+        ReflectionTestUtils.setField(reminderScheduler, "leadDays", 1);
+        ReflectionTestUtils.setField(reminderScheduler, "horizonDays", 7);
+        ReflectionTestUtils.setField(reminderScheduler, "maxPending", 2);
+    }
+
+    @Test
+    void shouldLoadWindowAndArmTimerForEarliestDeadline() {
+        when(taskRepository.streamReminders(0, TODAY, TODAY.plusDays(7), TaskStatus.DONE)).thenReturn(Stream.of(
+                reminder(1L, TODAY.plusDays(3)),
+                reminder(2L, TODAY.plusDays(5))));
+
+        reminderScheduler.extendWindow();
+
+        assertEquals(2, reminderScheduler.pendingCount());
+        verify(taskScheduler).schedule(any(Runnable.class), eq(instantOf(TODAY.plusDays(2))));
+    }
+
+    @Test
+    void shouldStopWindowBeforeDayCutByPendingCap() {
+        when(taskRepository.streamReminders(0, TODAY, TODAY.plusDays(7), TaskStatus.DONE)).thenReturn(Stream.of(
+                reminder(1L, TODAY.plusDays(1)),
+                reminder(2L, TODAY.plusDays(2)),
+                reminder(3L, TODAY.plusDays(2))));
+
+        reminderScheduler.extendWindow();
+        assertEquals(1, reminderScheduler.pendingCount());
+
+        reminderScheduler.onTaskChanged(TaskChangedEvent.created("testuser", task(4L, TaskStatus.TODO, TODAY.plusDays(2))));
+        assertEquals(1, reminderScheduler.pendingCount());
+    }
+
+    @Test
+    void shouldFireDueRemindersAndFollowTaskChanges() {
+        ReflectionTestUtils.setField(reminderScheduler, "maxPending", 10);
+        when(taskRepository.streamReminders(0, TODAY, TODAY.plusDays(7), TaskStatus.DONE)).thenReturn(Stream.empty());
+        when(reminderClaims.claim(any(), eq(TODAY.plusDays(1)))).thenAnswer(invocation -> invocation.getArgument(0));
+        reminderScheduler.extendWindow();
+
+        reminderScheduler.onTaskChanged(TaskChangedEvent.created("testuser", task(1L, TaskStatus.TODO, TODAY.plusDays(1))));
+        reminderScheduler.onTaskChanged(TaskChangedEvent.created("testuser", task(2L, TaskStatus.TODO, TODAY.plusDays(4))));
+        reminderScheduler.onTaskChanged(TaskChangedEvent.created("testuser", task(3L, TaskStatus.DONE, TODAY.plusDays(1))));
+        reminderScheduler.onTaskChanged(TaskChangedEvent.created("testuser", task(4L, TaskStatus.TODO, TODAY.plusDays(30))));
+        TaskResponse removed = task(5L, TaskStatus.TODO, TODAY.plusDays(1));
+        reminderScheduler.onTaskChanged(TaskChangedEvent.created("testuser", removed));
+        reminderScheduler.onTaskChanged(TaskChangedEvent.deleted("testuser", removed));
+        assertEquals(2, reminderScheduler.pendingCount());
+
+        ArgumentCaptor<Runnable> fire = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(fire.capture(), eq(instantOf(TODAY)));
+        fire.getValue().run();
+
+        assertEquals(List.of(1L), reminderSink.getReminders().stream().map(TaskReminder::taskId).toList());
+        assertEquals(1, reminderScheduler.pendingCount());
+        verify(taskScheduler).schedule(any(Runnable.class), eq(instantOf(TODAY.plusDays(3))));
+    }
+
+    @Test
+    void shouldNotDeliverRemindersClaimedByAnotherInstance() {
+        when(taskRepository.streamReminders(0, TODAY, TODAY.plusDays(7), TaskStatus.DONE)).thenReturn(Stream.of(
+                reminder(1L, TODAY.plusDays(1))));
+        when(reminderClaims.claim(reminder(1L, TODAY.plusDays(1)), TODAY.plusDays(1))).thenReturn(null);
+        reminderScheduler.extendWindow();
+
+        ArgumentCaptor<Runnable> fire = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(fire.capture(), eq(instantOf(TODAY)));
+        fire.getValue().run();
+
+        assertTrue(reminderSink.getReminders().isEmpty());
+        assertEquals(0, reminderScheduler.pendingCount());
+    }
+
+    @Test
+    void shouldRescheduleReminderWhoseDeadlineMovedOnAnotherInstance() {
+        when(taskRepository.streamReminders(0, TODAY, TODAY.plusDays(7), TaskStatus.DONE)).thenReturn(Stream.of(
+                reminder(1L, TODAY.plusDays(1))));
+        when(reminderClaims.claim(reminder(1L, TODAY.plusDays(1)), TODAY.plusDays(1))).thenReturn(reminder(1L, TODAY.plusDays(5)));
+        reminderScheduler.extendWindow();
+
+        ArgumentCaptor<Runnable> fire = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(fire.capture(), eq(instantOf(TODAY)));
+        fire.getValue().run();
+
+        assertTrue(reminderSink.getReminders().isEmpty());
+        assertEquals(1, reminderScheduler.pendingCount());
+        verify(taskScheduler).schedule(any(Runnable.class), eq(instantOf(TODAY.plusDays(4))));
+    }
+
+    private static Instant instantOf(LocalDate date) {
+        return date.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    private static TaskReminder reminder(Long taskId, LocalDate deadline) {
+        return new TaskReminder(taskId, "testuser", "Task " + taskId, deadline);
+    }
+
+    private static TaskResponse task(Long id, TaskStatus status, LocalDate deadline) {
+        return new TaskResponse(id, "Task " + id, null, status, TaskPriority.MEDIUM, deadline, 0L);
+    }
+}
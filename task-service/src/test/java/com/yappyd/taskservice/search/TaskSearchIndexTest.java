@@ -0,0 +1,60 @@
+package com.yappyd.taskservice.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskSearchIndexTest {
+
+    private TaskSearchIndex taskSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        taskSearchIndex = new TaskSearchIndex();
+        taskSearchIndex.index("testuser", 1L, "Buy milk", "Go to the grocery store");
+        taskSearchIndex.index("testuser", 2L, "Call mom", "Ask about the milk recipe");
+        taskSearchIndex.index("testuser", 3L, "Write report", null);
+        taskSearchIndex.index("otheruser", 4L, "Buy milk", null);
+    }
+
+    @Test
+    void shouldRankTitleMatchesAboveDescriptionMatches() {
+        List<Long> result = taskSearchIndex.search("testuser", "milk", 10);
+
+        assertEquals(List.of(1L, 2L), result);
+    }
+
+    @Test
+    void shouldKeepUsersPartitioned() {
+        assertEquals(List.of(4L), taskSearchIndex.search("otheruser", "MILK", 10));
+        assertEquals(List.of(), taskSearchIndex.search("unknown", "milk", 10));
+    }
+
+    @Test
+    void shouldReindexAndRemoveIncrementally() {
+        taskSearchIndex.index("testuser", 1L, "Buy bread", null);
+        assertEquals(List.of(2L), taskSearchIndex.search("testuser", "milk", 10));
+        assertEquals(List.of(1L), taskSearchIndex.search("testuser", "bread", 10));
+
+        taskSearchIndex.remove("testuser", 2L);
+        assertEquals(List.of(), taskSearchIndex.search("testuser", "milk", 10));
+    }
+
+    @Test
+    void shouldScoreDocumentsMatchingMoreTermsHigher() {
+        List<Long> result = taskSearchIndex.search("testuser", "write milk report", 10);
+
+        assertEquals(3L, result.get(0));
+        assertEquals(3, result.size());
+        assertEquals(1, taskSearchIndex.search("testuser", "write milk report", 1).size());
+    }
+
+    @Test
+    void shouldTokenizeOnNonAlphanumericCharacters() {
+        assertEquals(List.of("café", "au", "lait", "2"), TaskSearchIndex.tokenize("Café-au_lait #2!"));
+        assertEquals(List.of(), taskSearchIndex.search("testuser", "  ?! ", 10));
+    }
+}
@@ -0,0 +1,144 @@
+package com.yappyd.taskservice.service;
+
+import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.event.TaskChangedEvent;
+import com.yappyd.taskservice.model.Task.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskEventStreamServiceTest {
+
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private TaskEventStreamService taskEventStreamService;
+
+    @BeforeEach
+    void setUp() {
+        taskEventStreamService = new TaskEventStreamService(Runnable::run) {
+            @Override
+            SseEmitter newEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(taskEventStreamService, "bufferSize", 4);
+        ReflectionTestUtils.setField(taskEventStreamService, "emitterTimeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(taskEventStreamService, "retention", Duration.ZERO);
+    }
+
+    @Test
+    void shouldPushChangesOfSubscribedUserOnly() {
+        RecordingEmitter emitter = (RecordingEmitter) taskEventStreamService.subscribe("testuser", null);
+
+        taskEventStreamService.onTaskChanged(TaskChangedEvent.created("testuser", task(1L)));
+        taskEventStreamService.onTaskChanged(TaskChangedEvent.created("otheruser", task(2L)));
+        taskEventStreamService.onTaskChanged(TaskChangedEvent.deleted("testuser", task(1L)));
+
+        assertEquals(List.of("created", "deleted"), emitter.eventNames());
+        assertTrue(emitter.events.get(0).contains("taskId=1"));
+    }
+
+    @Test
+    void shouldResumeAfterLastEventId() {
+        RecordingEmitter first = (RecordingEmitter) taskEventStreamService.subscribe("testuser", null);
+        taskEventStreamService.onTaskChanged(TaskChangedEvent.created("testuser", task(1L)));
+        String lastEventId = first.lastEventId();
+        first.complete();
+
+        taskEventStreamService.onTaskChanged(TaskChangedEvent.created("testuser", task(2L)));
+        taskEventStreamService.onTaskChanged(TaskChangedEvent.created("testuser", task(3L)));
+        RecordingEmitter resumed = (RecordingEmitter) taskEventStreamService.subscribe("testuser", lastEventId);
+
+        assertEquals(List.of("created", "created"), resumed.eventNames());
+    }
+
+    @Test
+    void shouldSendResyncWhenResumePointIsGoneOrFromAnotherRun() {
+        RecordingEmitter first = (RecordingEmitter) taskEventStreamService.subscribe("testuser", null);
+        taskEventStreamService.onTaskChanged(TaskChangedEvent.created("testuser", task(1L)));
+        String lastEventId = first.lastEventId();
+        first.complete();
+        for (long id = 2; id <= 7; id++) {
+            taskEventStreamService.onTaskChanged(TaskChangedEvent.created("testuser", task(id)));
+        }
+
+        RecordingEmitter overrun = (RecordingEmitter) taskEventStreamService.subscribe("testuser", lastEventId);
+        RecordingEmitter foreign = (RecordingEmitter) taskEventStreamService.subscribe("testuser", "0-5");
+
+        assertEquals(List.of(TaskEventStreamService.RESYNC_EVENT), overrun.eventNames());
+        assertEquals(List.of(TaskEventStreamService.RESYNC_EVENT), foreign.eventNames());
+    }
+
+    @Test
+    void shouldDropIdleFeeds() {
+        RecordingEmitter emitter = (RecordingEmitter) taskEventStreamService.subscribe("testuser", null);
+        taskEventStreamService.onTaskChanged(TaskChangedEvent.created("testuser", task(1L)));
+        String lastEventId = emitter.lastEventId();
+        emitter.complete();
+
+        taskEventStreamService.removeIdleFeeds();
+        RecordingEmitter resumed = (RecordingEmitter) taskEventStreamService.subscribe("testuser", lastEventId);
+
+        assertEquals(List.of(TaskEventStreamService.RESYNC_EVENT), resumed.eventNames());
+    }
+
+    @Test
+    void shouldSendHeartbeatsToOpenStreamsOnly() {
+        RecordingEmitter open = (RecordingEmitter) taskEventStreamService.subscribe("testuser", null);
+        RecordingEmitter closed = (RecordingEmitter) taskEventStreamService.subscribe("testuser", null);
+        closed.complete();
+
+        taskEventStreamService.sendHeartbeats();
+        taskEventStreamService.onTaskChanged(TaskChangedEvent.created("testuser", task(1L)));
+
+        assertEquals(2, open.events.size());
+        assertEquals(":" + TaskEventStreamService.HEARTBEAT_COMMENT + "\n\n", open.events.get(0));
+        assertTrue(open.events.get(1).contains("event:created"));
+        assertTrue(closed.events.isEmpty());
+    }
+
+    private static TaskResponse task(Long id) {
+        return new TaskResponse(id, "Task " + id, null, TaskStatus.TODO, TaskPriority.MEDIUM, null, 0L);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            events.add(builder.build().stream()
+                    .map(DataWithMediaType::getData)
+                    .map(String::valueOf)
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public synchronized void complete() {
+            super.complete();
+            // Without a servlet container nothing calls back, so fire the completion callback ourselves.
+            ReflectionTestUtils.invokeMethod(ReflectionTestUtils.getField(this, "completionCallback"), "run");
+        }
+
+        List<String> eventNames() {
+            return events.stream()
+                    .map(event -> event.lines().filter(line -> line.startsWith("event:")).findFirst().orElseThrow().substring(6))
+                    .toList();
+        }
+
+        String lastEventId() {
+            String event = events.get(events.size() - 1);
+            return event.lines().filter(line -> line.startsWith("id:")).findFirst().orElseThrow().substring(3);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.yappyd.taskservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.yappyd.taskservice.model.Task;
+import com.yappyd.taskservice.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskExportServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private TaskExportService taskExportService;
+
+    private Task firstTask;
+    private Task secondTask;
+
+    @BeforeEach
+    void setUp() {
+        // Dates as ISO strings, as the ObjectMapper Spring Boot configures writes them.
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        taskExportService = new TaskExportService(taskRepository, entityManager, objectMapper);
+
+        firstTask = Task.builder()
+                .id(1L)
+                .username("testuser")
+                .title("First Task")
+                .description("Description")
+                .status(Task.TaskStatus.TODO)
+                .priority(Task.TaskPriority.MEDIUM)
+                .deadline(LocalDate.of(2025, 10, 10))
+                .build();
+        secondTask = Task.builder()
+                .id(2L)
+                .username("testuser")
+                .title("Second Task")
+                .status(Task.TaskStatus.DONE)
+                .priority(Task.TaskPriority.LOW)
+                .build();
+    }
+
+    @Test
+    void shouldExportTasksAsNdjsonAndDetachEachEntity() throws Exception {
+        when(taskRepository.streamByUsername("testuser")).thenReturn(Stream.of(firstTask, secondTask));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long exported = taskExportService.exportTasks("testuser", outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, exported);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"title\":\"First Task\""));
+        assertTrue(lines[0].contains("\"deadline\":\"2025-10-10\""));
+        assertTrue(lines[1].contains("\"status\":\"DONE\""));
+        verify(entityManager, times(1)).detach(firstTask);
+        verify(entityManager, times(1)).detach(secondTask);
+    }
+
+    @Test
+    void shouldExportNothingWhenUserHasNoTasks() throws Exception {
+        when(taskRepository.streamByUsername("testuser")).thenReturn(Stream.empty());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long exported = taskExportService.exportTasks("testuser", outputStream);
+
+        assertEquals(0, exported);
+        assertEquals(0, outputStream.size());
+        verifyNoInteractions(entityManager);
+    }
+}
@@ -0,0 +1,113 @@
+package com.yappyd.taskservice.service;
+
+import com.yappyd.taskservice.dto.TaskFilter;
+import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.dto.TaskUpdateRequest;
+import com.yappyd.taskservice.exception.TaskNotFoundException;
+import com.yappyd.taskservice.exception.TaskVersionConflictException;
+import com.yappyd.taskservice.model.Task.*;
+import com.yappyd.taskservice.repository.TaskRepository;
+import com.yappyd.taskservice.shard.ShardDirectory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static com.yappyd.taskservice.TestTasks.request;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TaskGroupCommitterIntegrationTest {
+
+    @Autowired
+    private TaskGroupCommitter taskGroupCommitter;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void shouldCommitConcurrentCreatesTogether() {
+        List<CompletableFuture<TaskResponse>> results = IntStream.range(0, 20)
+                .mapToObj(i -> taskGroupCommitter.createTask(request("task" + i), "grouped" + i % 4))
+                .toList();
+
+        List<TaskResponse> created = results.stream().map(taskGroupCommitter::await).toList();
+
+        assertEquals(20, new HashSet<>(created.stream().map(TaskResponse::id).toList()).size());
+        assertEquals(5, taskService.getTasks("grouped0", TaskFilter.NONE, Pageable.unpaged()).getTotalElements());
+        assertTrue(meterRegistry.summary("task.group-commit.size").max() > 1);
+    }
+
+    @Test
+    void shouldCoalesceUpdatesOfOneTask() {
+        String username = "coalesced";
+        TaskResponse task = taskService.createTask(request("original"), username);
+
+        CompletableFuture<TaskResponse> rename = taskGroupCommitter.updateTask(task.id(),
+                new TaskUpdateRequest("renamed", null, null, null, null), username, task.version());
+        CompletableFuture<TaskResponse> reprioritize = taskGroupCommitter.updateTask(task.id(),
+                new TaskUpdateRequest(null, null, TaskPriority.HIGH, null, null), username, null);
+        CompletableFuture<TaskResponse> stale = taskGroupCommitter.updateTask(task.id(),
+                new TaskUpdateRequest("stale", null, null, null, null), username, task.version());
+        CompletableFuture<TaskResponse> missing = taskGroupCommitter.updateTask(-1L,
+                new TaskUpdateRequest("missing", null, null, null, null), username, null);
+
+        TaskResponse renamed = taskGroupCommitter.await(rename);
+        assertEquals("renamed", renamed.title());
+        assertEquals(TaskPriority.MEDIUM, renamed.priority());
+        assertEquals(task.version() + 1, renamed.version());
+        TaskResponse reprioritized = taskGroupCommitter.await(reprioritize);
+        assertEquals("renamed", reprioritized.title());
+        assertEquals(TaskPriority.HIGH, reprioritized.priority());
+        assertEquals(task.version() + 2, reprioritized.version());
+        assertThrows(TaskVersionConflictException.class, () -> taskGroupCommitter.await(stale));
+        assertThrows(TaskNotFoundException.class, () -> taskGroupCommitter.await(missing));
+
+        assertEquals(reprioritized, taskService.getTask(task.id(), username));
+    }
+
+    @Test
+    void shouldFailOnlyTheWriteThatBrokeTheGroup() {
+        String username = "partly-invalid";
+        CompletableFuture<TaskResponse> first = taskGroupCommitter.createTask(request("first"), username);
+        CompletableFuture<TaskResponse> tooLong = taskGroupCommitter.createTask(request("x".repeat(201)), username);
+        CompletableFuture<TaskResponse> second = taskGroupCommitter.createTask(request("second"), username);
+
+        assertEquals("first", taskGroupCommitter.await(first).title());
+        assertThrows(DataIntegrityViolationException.class, () -> taskGroupCommitter.await(tooLong));
+        assertEquals("second", taskGroupCommitter.await(second).title());
+        assertEquals(2, taskService.getTasks(username, TaskFilter.NONE, Pageable.unpaged()).getTotalElements());
+    }
+
+    @Test
+    void shouldRejectWritesOnceClosed() throws InterruptedException {
+        TaskGroupCommitter closed = new TaskGroupCommitter(taskService, context.getBean(TaskRepository.class),
+                context.getBean(ShardDirectory.class), context, context.getBean(Clock.class),
+                context.getBean(PlatformTransactionManager.class), meterRegistry, 64, Duration.ofMillis(50), Duration.ofSeconds(5));
+        CompletableFuture<TaskResponse> beforeClose = closed.createTask(request("before close"), "closing");
+
+        closed.close();
+
+        assertEquals("before close", closed.await(beforeClose).title());
+        IllegalStateException rejected = assertThrows(IllegalStateException.class,
+                () -> closed.await(closed.createTask(request("after close"), "closing")));
+        assertEquals("Group commit writer is shut down", rejected.getMessage());
+    }
+}
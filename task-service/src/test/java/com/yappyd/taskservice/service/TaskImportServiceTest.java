@@ -0,0 +1,130 @@
+package com.yappyd.taskservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.yappyd.taskservice.dto.TaskCreateRequest;
+import com.yappyd.taskservice.dto.TaskImportResponse;
+import com.yappyd.taskservice.exception.InvalidImportException;
+import com.yappyd.taskservice.model.Task;
+import com.yappyd.taskservice.service.TaskImportService.ImportFormat;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskImportServiceTest {
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private TaskImportService taskImportService;
+
+    private final String deadline = LocalDate.now().plusDays(1).toString();
+
+    @BeforeEach
+    void setUp() {
+        taskImportService = new TaskImportService(
+                taskService,
+                entityManager,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper().registerModule(new JavaTimeModule())
+        );
+        ReflectionTestUtils.setField(taskImportService, "batchSize", 2);
+        ReflectionTestUtils.setField(taskImportService, "maxReportedErrors", 10);
+    }
+
+    @Test
+    void shouldImportNdjsonInBoundedBatchesAndReportInvalidLines() throws Exception {
+        List<List<TaskCreateRequest>> batches = captureBatches();
+        String body = """
+                {"title":"First","priority":"LOW","status":"TODO","deadline":"%s"}
+                {"title":"","priority":"LOW","status":"TODO"}
+
+                not json
+                {"title":"Second","priority":"HIGH","status":"DONE"}
+                null
+                {"title":"Third","priority":"MEDIUM","status":"IN_PROGRESS"}
+                """.formatted(deadline);
+
+        TaskImportResponse response = taskImportService.importTasks(stream(body), ImportFormat.NDJSON, "testuser");
+
+        assertEquals(3, response.imported());
+        assertEquals(3, response.failed());
+        assertEquals(2, response.errors().get(0).line());
+        assertTrue(response.errors().get(0).message().contains("title"));
+        assertEquals(4, response.errors().get(1).line());
+        assertEquals(6, response.errors().get(2).line());
+        assertEquals(List.of(2, 1), batches.stream().map(List::size).toList());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void shouldImportCsvWithQuotedFields() throws Exception {
+        List<List<TaskCreateRequest>> batches = captureBatches();
+        String body = """
+                title,description,priority,status,deadline
+                "Buy milk, eggs","Say \"\"hi\"\"",low,todo,%s
+                Unknown,,urgent,todo,
+                """.formatted(deadline);
+
+        TaskImportResponse response = taskImportService.importTasks(stream(body), ImportFormat.CSV, "testuser");
+
+        assertEquals(1, response.imported());
+        assertEquals(1, response.failed());
+        assertEquals(3, response.errors().get(0).line());
+        TaskCreateRequest imported = batches.get(0).get(0);
+        assertEquals("Buy milk, eggs", imported.title());
+        assertEquals("Say \"hi\"", imported.description());
+        assertEquals(Task.TaskPriority.LOW, imported.priority());
+        assertEquals(LocalDate.parse(deadline), imported.deadline());
+    }
+
+    @Test
+    void shouldRejectCsvWithoutRequiredColumns() {
+        assertThrows(InvalidImportException.class,
+                () -> taskImportService.importTasks(stream("title,description\nA,B\n"), ImportFormat.CSV, "testuser"));
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void shouldRejectCsvWithUnterminatedQuoteInHeader() {
+        assertThrows(InvalidImportException.class,
+                () -> taskImportService.importTasks(stream("title,\"priority,status\nA,low,todo\n"), ImportFormat.CSV, "testuser"));
+        verifyNoInteractions(taskService);
+    }
+
+    private List<List<TaskCreateRequest>> captureBatches() {
+        List<List<TaskCreateRequest>> batches = new ArrayList<>();
+        when(taskService.createTasks(anyList(), eq("testuser"))).thenAnswer(invocation -> {
+            List<TaskCreateRequest> batch = new ArrayList<>(invocation.getArgument(0));
+            batches.add(batch);
+            return Collections.nCopies(batch.size(), null);
+        });
+        return batches;
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
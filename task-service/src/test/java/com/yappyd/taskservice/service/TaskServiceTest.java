@@ -1,9 +1,15 @@
 package com.yappyd.taskservice.service;
 
 import com.yappyd.taskservice.dto.TaskCreateRequest;
+import com.yappyd.taskservice.dto.TaskCursorPage;
+import com.yappyd.taskservice.dto.TaskFilter;
 import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.dto.TaskSummaryResponse;
 import com.yappyd.taskservice.dto.TaskUpdateRequest;
+import com.yappyd.taskservice.event.TaskChangedEvent;
+import com.yappyd.taskservice.exception.InvalidCursorException;
 import com.yappyd.taskservice.exception.TaskNotFoundException;
+import com.yappyd.taskservice.exception.TaskVersionConflictException;
 import com.yappyd.taskservice.exception.UsernameAccessException;
 import com.yappyd.taskservice.model.Task;
 import com.yappyd.taskservice.repository.TaskRepository;
@@ -12,26 +18,41 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class TaskServiceTest {
+    private static final Instant NOW = Instant.parse("2025-10-01T12:00:00Z");
 
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+
     @InjectMocks
     private TaskService taskService;
 
@@ -50,6 +71,7 @@ class TaskServiceTest {
                 .status(Task.TaskStatus.TODO)
                 .priority(Task.TaskPriority.MEDIUM)
                 .deadline(LocalDate.of(2025, 10, 10))
+                .version(0L)
                 .build();
 
         createRequest = new TaskCreateRequest(
@@ -85,87 +107,236 @@ class TaskServiceTest {
         assertEquals(Task.TaskPriority.MEDIUM, response.priority());
         assertEquals(LocalDate.of(2025, 10, 10), response.deadline());
         verify(taskRepository, times(1)).save(any(Task.class));
+        verify(eventPublisher, times(1)).publishEvent(TaskChangedEvent.created("testuser", response));
+    }
+
+    @Test
+    void shouldStampCompletionTimeOfDoneTaskFromClock() {
+        TaskCreateRequest doneRequest = new TaskCreateRequest("Done Task", null, Task.TaskPriority.LOW, Task.TaskStatus.DONE, null);
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        taskService.createTask(doneRequest, "testuser");
+        taskService.createTask(createRequest, "testuser");
+
+        verify(taskRepository).save(argThat(saved -> saved.getStatus() == Task.TaskStatus.DONE && NOW.equals(saved.getCompletedAt())));
+        verify(taskRepository).save(argThat(saved -> saved.getStatus() == Task.TaskStatus.TODO && saved.getCompletedAt() == null));
+    }
+
+    @Test
+    void shouldCreateTasksInBatchSuccessfully() {
+        when(taskRepository.saveAll(anyList())).thenReturn(List.of(task, task));
+
+        List<TaskResponse> response = taskService.createTasks(List.of(createRequest, createRequest), "testuser");
+
+        assertEquals(2, response.size());
+        assertEquals("Test Task", response.get(0).title());
+        verify(taskRepository, times(1)).saveAll(anyList());
+        verify(taskRepository, never()).save(any(Task.class));
     }
 
     @Test
     void shouldGetTasksSuccessfully() {
-        Page<Task> tasks = new PageImpl<>(List.of(task));
-        when(taskRepository.findByUsername("testuser", pageable)).thenReturn(tasks);
+        TaskResponse taskResponse = new TaskResponse(1L, "Test Task", "Description", Task.TaskStatus.TODO, Task.TaskPriority.MEDIUM, LocalDate.of(2025, 10, 10), 0L);
+        Page<TaskResponse> tasks = new PageImpl<>(List.of(taskResponse));
+        when(taskRepository.findResponses("testuser", TaskFilter.NONE, pageable)).thenReturn(tasks);
 
-        Page<TaskResponse> response = taskService.getTasks("testuser", pageable);
+        Page<TaskResponse> response = taskService.getTasks("testuser", TaskFilter.NONE, pageable);
 
         assertNotNull(response);
         assertEquals(1, response.getTotalElements());
         assertEquals("Test Task", response.getContent().get(0).title());
         assertEquals(Task.TaskPriority.MEDIUM, response.getContent().get(0).priority());
-        verify(taskRepository, times(1)).findByUsername("testuser", pageable);
+        verify(taskRepository, times(1)).findResponses("testuser", TaskFilter.NONE, pageable);
+        verify(taskRepository, never()).findAll(any(Pageable.class));
+    }
+    @Test
+    void shouldPassFilterToRepository() {
+        TaskFilter filter = new TaskFilter(Task.TaskStatus.DONE, Task.TaskPriority.HIGH, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31));
+        when(taskRepository.findResponses("testuser", filter, pageable)).thenReturn(Page.empty(pageable));
+
+        Page<TaskResponse> response = taskService.getTasks("testuser", filter, pageable);
+
+        assertEquals(0, response.getTotalElements());
+        verify(taskRepository, times(1)).findResponses("testuser", filter, pageable);
     }
     @Test
     void shouldReturnEmptyPageWhenNoTasksExist() {
-        Page<Task> emptyPage = new PageImpl<>(List.of());
-        when(taskRepository.findByUsername("testuser", pageable)).thenReturn(emptyPage);
+        Page<TaskResponse> emptyPage = new PageImpl<>(List.of());
+        when(taskRepository.findResponses("testuser", TaskFilter.NONE, pageable)).thenReturn(emptyPage);
 
-        Page<TaskResponse> response = taskService.getTasks("testuser", pageable);
+        Page<TaskResponse> response = taskService.getTasks("testuser", TaskFilter.NONE, pageable);
 
         assertNotNull(response);
         assertEquals(0, response.getTotalElements());
-        verify(taskRepository, times(1)).findByUsername("testuser", pageable);
+        verify(taskRepository, times(1)).findResponses("testuser", TaskFilter.NONE, pageable);
+    }
+
+    @Test
+    void shouldGetTaskSummariesSuccessfully() {
+        TaskSummaryResponse summary = new TaskSummaryResponse(1L, "Test Task", Task.TaskStatus.TODO, Task.TaskPriority.MEDIUM, LocalDate.of(2025, 10, 10));
+        when(taskRepository.findSummaries("testuser", TaskFilter.NONE, pageable)).thenReturn(new PageImpl<>(List.of(summary)));
+
+        Page<TaskSummaryResponse> response = taskService.getTaskSummaries("testuser", TaskFilter.NONE, pageable);
+
+        assertEquals(1, response.getTotalElements());
+        assertEquals("Test Task", response.getContent().get(0).title());
+        verify(taskRepository, never()).findResponses(any(), any(), any());
+    }
+
+    @Test
+    void shouldGetTaskSuccessfully() {
+        TaskResponse taskResponse = new TaskResponse(1L, "Test Task", "Description", Task.TaskStatus.TODO, Task.TaskPriority.MEDIUM, LocalDate.of(2025, 10, 10), 0L);
+        when(taskRepository.findResponseByIdAndUsername(1L, "testuser")).thenReturn(Optional.of(taskResponse));
+
+        TaskResponse response = taskService.getTask(1L, "testuser");
+
+        assertEquals("Description", response.description());
+        verify(taskRepository, never()).existsById(any());
+    }
+    @Test
+    void shouldThrowTaskNotFoundExceptionForNonExistentTaskInGet() {
+        when(taskRepository.findResponseByIdAndUsername(1L, "testuser")).thenReturn(Optional.empty());
+        when(taskRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(TaskNotFoundException.class, () -> taskService.getTask(1L, "testuser"));
+    }
+    @Test
+    void shouldThrowUsernameAccessExceptionForUnauthorizedUserInGet() {
+        when(taskRepository.findResponseByIdAndUsername(1L, "otheruser")).thenReturn(Optional.empty());
+        when(taskRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(UsernameAccessException.class, () -> taskService.getTask(1L, "otheruser"));
+    }
+
+    @Test
+    void shouldGetFirstKeysetPageWithNextCursor() {
+        Task next = Task.builder()
+                .id(2L)
+                .username("testuser")
+                .title("Next Task")
+                .status(Task.TaskStatus.TODO)
+                .priority(Task.TaskPriority.LOW)
+                .deadline(LocalDate.of(2025, 10, 11))
+                .build();
+        when(taskRepository.findFirstKeysetPage("testuser", Limit.of(2))).thenReturn(List.of(task, next));
+
+        TaskCursorPage response = taskService.getTasksAfter("testuser", "", 1);
+
+        assertEquals(1, response.content().size());
+        assertEquals(1L, response.content().get(0).id());
+        assertEquals(new TaskCursor(LocalDate.of(2025, 10, 10), 1L), TaskCursor.decode(response.nextCursor()));
+    }
+    @Test
+    void shouldGetLastKeysetPageWithoutNextCursor() {
+        String after = new TaskCursor(LocalDate.of(2025, 10, 9), 7L).encode();
+        when(taskRepository.findDatedAfter("testuser", LocalDate.of(2025, 10, 9), 7L, Limit.of(11))).thenReturn(List.of(task));
+
+        TaskCursorPage response = taskService.getTasksAfter("testuser", after, 10);
+
+        assertEquals(1, response.content().size());
+        assertNull(response.nextCursor());
+        verify(taskRepository, never()).findFirstKeysetPage(any(), any());
+    }
+    @Test
+    void shouldContinueWithDatedTasksAfterUndatedCursor() {
+        String after = new TaskCursor(null, 5L).encode();
+        when(taskRepository.findUndatedAfter("testuser", 5L, Limit.of(11))).thenReturn(List.of());
+        when(taskRepository.findFirstDated("testuser", Limit.of(11))).thenReturn(List.of(task));
+
+        TaskCursorPage response = taskService.getTasksAfter("testuser", after, 10);
+
+        assertEquals(1, response.content().size());
+        assertNull(response.nextCursor());
+    }
+    @Test
+    void shouldThrowInvalidCursorExceptionForMalformedCursor() {
+        assertThrows(InvalidCursorException.class, () -> taskService.getTasksAfter("testuser", "not-a-cursor", 10));
+        verifyNoInteractions(taskRepository);
     }
 
     @Test
     void shouldUpdateTaskSuccessfully() {
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
-        when(taskRepository.save(any(Task.class))).thenReturn(task);
+        when(taskRepository.updateIfOwned(1L, "testuser", "Updated Task", null, "HIGH", null, null, null, NOW)).thenReturn(Optional.of(task));
 
-        TaskResponse response = taskService.updateTask(1L, updateRequest, "testuser");
+        TaskResponse response = taskService.updateTask(1L, updateRequest, "testuser", null);
 
         assertNotNull(response);
         assertEquals("Updated Task", response.title());
         assertEquals(Task.TaskPriority.HIGH, response.priority());
         assertEquals("Description", response.description());
-        verify(taskRepository, times(1)).findById(1L);
-        verify(taskRepository, times(1)).save(any(Task.class));
+        assertEquals(Task.TaskStatus.TODO, response.status());
+        assertEquals(1L, response.version());
+        verify(taskRepository, times(1)).updateIfOwned(1L, "testuser", "Updated Task", null, "HIGH", null, null, null, NOW);
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).existsById(any());
+        verify(taskRepository, never()).save(any(Task.class));
+        verify(eventPublisher, times(1)).publishEvent(TaskChangedEvent.updated(
+                "testuser",
+                new TaskResponse(1L, "Test Task", "Description", Task.TaskStatus.TODO, Task.TaskPriority.MEDIUM, LocalDate.of(2025, 10, 10), 0L),
+                response));
     }
     @Test
     void shouldThrowTaskNotFoundExceptionForNonExistentTaskInUpdate() {
-        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+        when(taskRepository.updateIfOwned(1L, "testuser", "Updated Task", null, "HIGH", null, null, null, NOW)).thenReturn(Optional.empty());
+        when(taskRepository.existsById(1L)).thenReturn(false);
 
-        assertThrows(TaskNotFoundException.class, () -> taskService.updateTask(1L, updateRequest, "testuser"));
-        verify(taskRepository, times(1)).findById(1L);
-        verify(taskRepository, never()).save(any(Task.class));
+        assertThrows(TaskNotFoundException.class, () -> taskService.updateTask(1L, updateRequest, "testuser", null));
+        verify(taskRepository, times(1)).existsById(1L);
+        verifyNoInteractions(eventPublisher);
     }
     @Test
     void shouldThrowUsernameAccessExceptionForUnauthorizedUserInUpdate() {
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.updateIfOwned(1L, "otheruser", "Updated Task", null, "HIGH", null, null, null, NOW)).thenReturn(Optional.empty());
+        when(taskRepository.existsById(1L)).thenReturn(true);
 
-        assertThrows(UsernameAccessException.class, () -> taskService.updateTask(1L, updateRequest, "otheruser"));
-        verify(taskRepository, times(1)).findById(1L);
-        verify(taskRepository, never()).save(any(Task.class));
+        assertThrows(UsernameAccessException.class, () -> taskService.updateTask(1L, updateRequest, "otheruser", null));
+        verify(taskRepository, times(1)).existsById(1L);
+    }
+
+    @Test
+    void shouldThrowTaskVersionConflictExceptionForStaleVersionInUpdate() {
+        when(taskRepository.updateIfOwned(1L, "testuser", "Updated Task", null, "HIGH", null, null, 3L, NOW)).thenReturn(Optional.empty());
+        when(taskRepository.existsByIdAndUsername(1L, "testuser")).thenReturn(true);
+
+        assertThrows(TaskVersionConflictException.class, () -> taskService.updateTask(1L, updateRequest, "testuser", 3L));
+        verify(taskRepository, never()).existsById(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void shouldThrowTaskNotFoundExceptionForNonExistentTaskInVersionedUpdate() {
+        when(taskRepository.updateIfOwned(1L, "testuser", "Updated Task", null, "HIGH", null, null, 3L, NOW)).thenReturn(Optional.empty());
+        when(taskRepository.existsByIdAndUsername(1L, "testuser")).thenReturn(false);
+        when(taskRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(TaskNotFoundException.class, () -> taskService.updateTask(1L, updateRequest, "testuser", 3L));
     }
 
     @Test
     void shouldDeleteTaskSuccessfully() {
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.deleteIfOwned(1L, "testuser")).thenReturn(Optional.of(task));
 
         taskService.deleteTask(1L, "testuser");
 
-        verify(taskRepository, times(1)).findById(1L);
-        verify(taskRepository, times(1)).delete(task);
+        verify(taskRepository, times(1)).deleteIfOwned(1L, "testuser");
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).existsById(any());
+        verify(eventPublisher, times(1)).publishEvent(any(TaskChangedEvent.class));
     }
     @Test
     void shouldThrowTaskNotFoundExceptionForNonExistentTaskInDelete() {
-        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+        when(taskRepository.deleteIfOwned(1L, "testuser")).thenReturn(Optional.empty());
+        when(taskRepository.existsById(1L)).thenReturn(false);
 
         assertThrows(TaskNotFoundException.class, () -> taskService.deleteTask(1L, "testuser"));
-        verify(taskRepository, times(1)).findById(1L);
-        verify(taskRepository, never()).delete(any(Task.class));
+        verify(taskRepository, times(1)).existsById(1L);
     }
     @Test
     void shouldThrowUsernameAccessExceptionForUnauthorizedUserInDelete() {
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.deleteIfOwned(1L, "otheruser")).thenReturn(Optional.empty());
+        when(taskRepository.existsById(1L)).thenReturn(true);
 
         assertThrows(UsernameAccessException.class, () -> taskService.deleteTask(1L, "otheruser"));
-        verify(taskRepository, times(1)).findById(1L);
-        verify(taskRepository, never()).delete(any(Task.class));
+        verify(taskRepository, times(1)).existsById(1L);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,146 @@
+package com.yappyd.taskservice.service;
+
+import com.yappyd.taskservice.dto.TaskCountRow;
+import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.dto.TaskStatsResponse;
+import com.yappyd.taskservice.event.TaskChangedEvent;
+import com.yappyd.taskservice.model.Task.*;
+import com.yappyd.taskservice.repository.TaskRepository;
+import com.yappyd.taskservice.shard.ShardCall;
+import com.yappyd.taskservice.shard.ShardDirectory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskStatisticsServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ShardDirectory shardDirectory;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MutableClock clock;
+    private TaskStatisticsService taskStatisticsService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(shardDirectory.buckets()).thenReturn(List.of(0));
+        lenient().when(shardDirectory.callForBucket(eq(0), any())).thenAnswer(invocation -> invocation.<ShardCall<?, ?>>getArgument(1).call());
+        clock = new MutableClock(LocalDate.of(2025, 10, 10));
+        taskStatisticsService = new TaskStatisticsService(taskRepository, shardDirectory, clock, transactionManager);
+    }
+
+    @Test
+    void shouldCountCreatedUpdatedAndDeletedTasks() {
+        TaskResponse first = task(1L, TaskStatus.TODO, TaskPriority.HIGH, null);
+        TaskResponse second = task(2L, TaskStatus.TODO, TaskPriority.LOW, null);
+        taskStatisticsService.onTaskChanged(TaskChangedEvent.created("testuser", first));
+        taskStatisticsService.onTaskChanged(TaskChangedEvent.created("testuser", second));
+        taskStatisticsService.onTaskChanged(TaskChangedEvent.updated("testuser", first,
+                task(1L, TaskStatus.DONE, TaskPriority.HIGH, null)));
+        taskStatisticsService.onTaskChanged(TaskChangedEvent.deleted("testuser", second));
+
+        TaskStatsResponse stats = taskStatisticsService.getStats("testuser");
+
+        assertEquals(1, stats.total());
+        assertEquals(1L, stats.byStatus().get(TaskStatus.DONE));
+        assertEquals(0L, stats.byStatus().get(TaskStatus.TODO));
+        assertEquals(1L, stats.byPriority().get(TaskPriority.HIGH));
+        assertEquals(0L, stats.byPriority().get(TaskPriority.LOW));
+        assertEquals(0, taskStatisticsService.getStats("otheruser").total());
+    }
+
+    @Test
+    void shouldCountOpenTasksPastTheirDeadlineAsOverdue() {
+        TaskResponse dueToday = task(1L, TaskStatus.TODO, TaskPriority.MEDIUM, LocalDate.of(2025, 10, 10));
+        TaskResponse dueYesterday = task(2L, TaskStatus.IN_PROGRESS, TaskPriority.MEDIUM, LocalDate.of(2025, 10, 9));
+        TaskResponse doneYesterday = task(3L, TaskStatus.DONE, TaskPriority.MEDIUM, LocalDate.of(2025, 10, 9));
+        taskStatisticsService.onTaskChanged(TaskChangedEvent.created("testuser", dueToday));
+        taskStatisticsService.onTaskChanged(TaskChangedEvent.created("testuser", dueYesterday));
+        taskStatisticsService.onTaskChanged(TaskChangedEvent.created("testuser", doneYesterday));
+
+        assertEquals(1, taskStatisticsService.getStats("testuser").overdue());
+
+        clock.setDate(LocalDate.of(2025, 10, 11));
+        assertEquals(2, taskStatisticsService.getStats("testuser").overdue());
+
+        taskStatisticsService.onTaskChanged(TaskChangedEvent.updated("testuser", dueYesterday,
+                task(2L, TaskStatus.DONE, TaskPriority.MEDIUM, LocalDate.of(2025, 10, 9))));
+        assertEquals(1, taskStatisticsService.getStats("testuser").overdue());
+
+        clock.setDate(LocalDate.of(2025, 10, 1));
+        assertEquals(0, taskStatisticsService.getStats("testuser").overdue());
+    }
+
+    @Test
+    void shouldReplaceCountersWithReconciledCounts() {
+        taskStatisticsService.onTaskChanged(TaskChangedEvent.created("testuser",
+                task(1L, TaskStatus.TODO, TaskPriority.HIGH, null)));
+        taskStatisticsService.onTaskChanged(TaskChangedEvent.created("staleuser",
+                task(2L, TaskStatus.TODO, TaskPriority.HIGH, null)));
+        when(taskRepository.streamCounts(0)).thenReturn(Stream.of(
+                new TaskCountRow("testuser", TaskStatus.TODO, TaskPriority.LOW, LocalDate.of(2025, 10, 1), 3),
+                new TaskCountRow("testuser", TaskStatus.DONE, TaskPriority.HIGH, null, 2)));
+
+        taskStatisticsService.reconcile();
+
+        TaskStatsResponse stats = taskStatisticsService.getStats("testuser");
+        assertEquals(5, stats.total());
+        assertEquals(3L, stats.byStatus().get(TaskStatus.TODO));
+        assertEquals(2L, stats.byPriority().get(TaskPriority.HIGH));
+        assertEquals(3, stats.overdue());
+        assertEquals(0, taskStatisticsService.getStats("staleuser").total());
+        verify(taskRepository, never()).findCountsByUsername(anyString());
+    }
+
+    private static TaskResponse task(Long id, TaskStatus status, TaskPriority priority, LocalDate deadline) {
+        return new TaskResponse(id, "Task " + id, null, status, priority, deadline, 0L);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(LocalDate date) {
+            setDate(date);
+        }
+
+        void setDate(LocalDate date) {
+            instant = date.atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
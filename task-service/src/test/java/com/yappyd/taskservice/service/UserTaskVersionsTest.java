@@ -0,0 +1,74 @@
+package com.yappyd.taskservice.service;
+
+import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.event.TaskChangedEvent;
+import com.yappyd.taskservice.model.Task.*;
+import com.yappyd.taskservice.shard.ShardDirectory;
+import com.yappyd.taskservice.shard.ShardingConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserTaskVersionsTest {
+
+    private DataSource dataSource;
+    private UserTaskVersions userTaskVersions;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:versions-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        ShardingConfig.flyway(dataSource, 0).migrate();
+        new JdbcTemplate(dataSource).batchUpdate("INSERT INTO task_bucket_fence (bucket) VALUES (?)",
+                IntStream.range(0, ShardDirectory.BUCKETS).mapToObj(bucket -> new Object[]{bucket}).toList());
+        userTaskVersions = new UserTaskVersions(dataSource, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void shouldChangeEtagOnlyForUserWhoseTasksChanged() {
+        String before = userTaskVersions.etag("testuser");
+        String otherBefore = userTaskVersions.etag("otheruser");
+
+        userTaskVersions.onTaskChanged(changed("testuser"));
+
+        assertTrue(before.startsWith("W/\""));
+        assertNotEquals(before, userTaskVersions.etag("testuser"));
+        assertEquals(otherBefore, userTaskVersions.etag("otheruser"));
+        assertEquals(1, userTaskVersions.current("testuser"));
+    }
+
+    @Test
+    void shouldShareVersionsBetweenInstances() {
+        UserTaskVersions otherInstance = new UserTaskVersions(dataSource, Duration.ofMinutes(1));
+
+        userTaskVersions.onTaskChanged(changed("testuser"));
+        otherInstance.onTaskChanged(changed("testuser"));
+
+        assertEquals(2, userTaskVersions.current("testuser"));
+        assertEquals(userTaskVersions.etag("testuser"), otherInstance.etag("testuser"));
+    }
+
+    @Test
+    void shouldKeepReadingTheCachedVersionUntilItExpires() throws InterruptedException {
+        UserTaskVersions shortLived = new UserTaskVersions(dataSource, Duration.ofMillis(50));
+        UserTaskVersions otherInstance = new UserTaskVersions(dataSource, Duration.ofMinutes(1));
+        assertEquals(0, userTaskVersions.current("testuser"));
+        assertEquals(0, shortLived.current("testuser"));
+
+        otherInstance.onTaskChanged(changed("testuser"));
+        Thread.sleep(100);
+
+        assertEquals(0, userTaskVersions.current("testuser"));
+        assertEquals(1, shortLived.current("testuser"));
+    }
+
+    private static TaskChangedEvent changed(String username) {
+        return TaskChangedEvent.created(username, new TaskResponse(1L, "Task", null, TaskStatus.TODO, TaskPriority.LOW, null, 0L));
+    }
+}
@@ -0,0 +1,104 @@
+package com.yappyd.taskservice.shard;
+
+import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.dto.TaskUpdateRequest;
+import com.yappyd.taskservice.service.TaskService;
+import com.yappyd.taskservice.service.UserTaskVersions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.stream.IntStream;
+
+import static com.yappyd.taskservice.TestTasks.request;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "task.sharding.shards[0].url=" + ReadReplicaIntegrationTest.PRIMARY_URL,
+        "task.sharding.shards[0].username=sa",
+        "task.sharding.shards[0].replicas[0].url=" + ReadReplicaIntegrationTest.REPLICA_URL,
+        "task.sharding.shards[0].replicas[0].username=sa"
+})
+class ReadReplicaIntegrationTest {
+    static final String PRIMARY_URL = "jdbc:h2:mem:replica-test-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:replica-test-replica;DB_CLOSE_DELAY=-1";
+
+    // Stands in for replication: the replica only has what the test copies into it.
+    private static final JdbcTemplate replica = createReplica();
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserTaskVersions userTaskVersions;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void shouldReadFromReplicaOnlyOnceItHasCaughtUp() {
+        TaskResponse task = taskService.createTask(request("fresh"), "writer");
+        copyToReplica(task.id(), "writer", "stale");
+
+        assertEquals("fresh", taskService.getTask(task.id(), "writer").title());
+
+        copyVersionToReplica("writer");
+        assertEquals("stale", taskService.getTask(task.id(), "writer").title());
+    }
+
+    @Test
+    void shouldAlwaysWriteToPrimary() {
+        TaskResponse task = taskService.createTask(request("original"), "updater");
+        copyToReplica(task.id(), "updater", "original");
+        copyVersionToReplica("updater");
+
+        TaskResponse updated = taskService.updateTask(task.id(), new TaskUpdateRequest("changed", null, null, null, null),
+                "updater", null);
+
+        assertEquals("changed", updated.title());
+        assertEquals("changed", taskService.getTask(task.id(), "updater").title());
+        assertEquals("original", replica.queryForObject("SELECT title FROM task WHERE id = ?", String.class, task.id()));
+    }
+
+    @Test
+    void shouldScanWholeShardOnPrimary() {
+        replica.update("INSERT INTO task (id, bucket, username, title, status, priority, version) " +
+                "VALUES (-1, 0, 'ghost', 'only on the replica', 'TODO', 'MEDIUM', 0)");
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        Integer ghosts = ShardContext.callOn(0, () -> readOnlyTransaction.execute(status -> new JdbcTemplate(dataSource)
+                .queryForObject("SELECT COUNT(*) FROM task WHERE username = 'ghost'", Integer.class)));
+
+        assertEquals(0, ghosts);
+    }
+
+    private void copyVersionToReplica(String username) {
+        replica.update("MERGE INTO user_task_version (username, bucket, version) KEY (username) VALUES (?, ?, ?)",
+                username, ShardDirectory.bucketOf(username), userTaskVersions.current(username));
+    }
+
+    private static void copyToReplica(Long id, String username, String title) {
+        replica.update("INSERT INTO task (id, bucket, username, title, status, priority, deadline, version) " +
+                        "VALUES (?, ?, ?, ?, 'TODO', 'MEDIUM', DATE '2030-01-01', 0)",
+                id, ShardDirectory.bucketOf(username), username, title);
+    }
+
+    private static JdbcTemplate createReplica() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        ShardingConfig.flyway(dataSource, 0).migrate();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        // The only shard owns every bucket.
+        jdbcTemplate.batchUpdate("INSERT INTO task_bucket_fence (bucket) VALUES (?)",
+                IntStream.range(0, ShardDirectory.BUCKETS).mapToObj(bucket -> new Object[]{bucket}).toList());
+        return jdbcTemplate;
+    }
+}
@@ -0,0 +1,279 @@
+package com.yappyd.taskservice.shard;
+
+import com.yappyd.taskservice.TaskServiceApplication;
+import com.yappyd.taskservice.dto.TaskFilter;
+import com.yappyd.taskservice.dto.TaskResponse;
+import com.yappyd.taskservice.dto.TaskUpdateRequest;
+import com.yappyd.taskservice.exception.UsernameAccessException;
+import com.yappyd.taskservice.service.TaskService;
+import com.yappyd.taskservice.service.UserTaskVersions;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.yappyd.taskservice.TestTasks.request;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ShardingIntegrationTest {
+
+    @TempDir
+    static Path shardDirectory;
+
+    @DynamicPropertySource
+    static void shards(DynamicPropertyRegistry registry) {
+        shardProperties().forEach((name, value) -> registry.add(name, () -> value));
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ShardDirectory directory;
+
+    @Autowired
+    private ShardDataSources shardDataSources;
+
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+
+    @Autowired
+    private UserTaskVersions userTaskVersions;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Every test starts from the initial assignment, whatever the one before it moved.
+    @AfterEach
+    void restoreAssignment() {
+        int[] owners = directory.owners();
+        for (int bucket = 0; bucket < ShardDirectory.BUCKETS; bucket++) {
+            if (owners[bucket] != bucket % 2) {
+                shardRebalancer.migrate(bucket, bucket % 2);
+            }
+        }
+    }
+
+    @Test
+    void shouldKeepEachUsersTasksOnTheirShard() {
+        List<String> usernames = IntStream.range(0, 20).mapToObj(i -> "placed" + i).toList();
+        Set<Long> ids = new HashSet<>();
+        for (String username : usernames) {
+            ids.add(taskService.createTask(request("first"), username).id());
+            taskService.createTasks(List.of(request("second"), request("third")), username).forEach(task -> ids.add(task.id()));
+        }
+
+        assertEquals(usernames.size() * 3, ids.size());
+        assertEquals(Set.of(0, 1), new HashSet<>(usernames.stream().map(directory::shardOf).toList()));
+        for (String username : usernames) {
+            int owner = directory.shardOf(username);
+            assertEquals(3, countOn(owner, username));
+            assertEquals(0, countOn(1 - owner, username));
+            assertEquals(3, taskService.getTasks(username, TaskFilter.NONE, Pageable.unpaged()).getTotalElements());
+        }
+    }
+
+    @Test
+    void shouldFindTasksOfUsersOnOtherShards() {
+        String owner = usernameOnShard(0, "owner");
+        String other = usernameOnShard(1, "other");
+        TaskResponse task = taskService.createTask(request("private"), owner);
+
+        assertThrows(UsernameAccessException.class, () -> taskService.getTask(task.id(), other));
+    }
+
+    @Test
+    void shouldMoveBucketWithoutLosingTasks() {
+        String username = usernameOnShard(0, "moved");
+        TaskResponse created = taskService.createTask(request("before"), username);
+        TaskResponse updated = taskService.updateTask(created.id(), new TaskUpdateRequest("after", null, null, null, null), username, null);
+        int bucket = ShardDirectory.bucketOf(username);
+
+        ShardRebalancer.BucketMove move = shardRebalancer.migrate(bucket, 1);
+
+        assertEquals(0, move.fromShard());
+        assertTrue(move.tasks() >= 1);
+        assertEquals(1, directory.shardOf(username));
+        assertEquals(0, countOn(0, username));
+        assertEquals(1, countOn(1, username));
+        TaskResponse read = taskService.getTask(created.id(), username);
+        assertEquals("after", read.title());
+        assertEquals(updated.version(), read.version());
+        assertEquals(2, userTaskVersions.current(username));
+        assertEquals("again", taskService.updateTask(created.id(), new TaskUpdateRequest("again", null, null, null, null),
+                username, updated.version()).title());
+
+        shardRebalancer.migrate(bucket, 0);
+        assertEquals(0, directory.shardOf(username));
+        assertEquals("again", taskService.getTask(created.id(), username).title());
+        assertEquals(3, userTaskVersions.current(username));
+    }
+
+    @Test
+    void shouldEvenOutBucketsWhenRebalancing() {
+        String username = usernameOnShard(1, "rebalanced");
+        taskService.createTask(request("kept"), username);
+        shardRebalancer.migrate(ShardDirectory.bucketOf(username), 0);
+
+        List<ShardRebalancer.BucketMove> moves = shardRebalancer.rebalance();
+
+        assertEquals(1, moves.size());
+        long onShardZero = IntStream.range(0, ShardDirectory.BUCKETS).filter(bucket -> directory.ownerOf(bucket) == 0).count();
+        assertEquals(ShardDirectory.BUCKETS / 2, onShardZero);
+        assertEquals(1, taskService.getTasks(username, TaskFilter.NONE, Pageable.unpaged()).getTotalElements());
+    }
+
+    @Test
+    void shouldReportPoolMetricsPerShard() {
+        taskService.createTask(request("counted"), usernameOnShard(1, "pooled"));
+
+        for (int shard = 0; shard < 2; shard++) {
+            assertNotNull(meterRegistry.find("hikaricp.connections.max").tag("pool", "task-shard-" + shard).gauge());
+        }
+        assertTrue(meterRegistry.get("hikaricp.connections.usage").tag("pool", "task-shard-1").timer().count() > 0);
+    }
+
+    @Test
+    void shouldCreateTheDirectoryOnShardZeroOnly() {
+        for (int shard = 0; shard < 2; shard++) {
+            Integer directoryTables = new JdbcTemplate(shardDataSources.get(shard)).queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.tables WHERE LOWER(table_name) = 'task_shard_bucket'", Integer.class);
+            assertEquals(shard == 0 ? 1 : 0, directoryTables);
+        }
+    }
+
+    @Test
+    void shouldUpdateTasksInsertedWithoutVersion() {
+        String username = usernameOnShard(1, "unversioned");
+        new JdbcTemplate(shardDataSources.get(1)).update("INSERT INTO task (id, bucket, username, title, status, priority) " +
+                "VALUES (-1, ?, ?, 'imported', 'TODO', 'MEDIUM')", ShardDirectory.bucketOf(username), username);
+
+        TaskResponse updated = taskService.updateTask(-1L, new TaskUpdateRequest("updated", null, null, null, null), username, 0L);
+
+        assertEquals("updated", updated.title());
+        assertEquals(1L, updated.version());
+    }
+
+    @Test
+    void shouldRouteOtherInstancesToTheBucketsNewShard() {
+        String username = usernameOnShard(0, "shared");
+        try (ConfigurableApplicationContext otherInstance = startOtherInstance()) {
+            TaskService otherTaskService = otherInstance.getBean(TaskService.class);
+            otherTaskService.createTask(request("before"), username);
+
+            ShardDirectory otherDirectory = otherInstance.getBean(ShardDirectory.class);
+            shardRebalancer.migrate(ShardDirectory.bucketOf(username), 1);
+            // Its copy of the directory is only corrected once the old shard's fence turns a call away.
+            assertEquals(0, otherDirectory.shardOf(username));
+            otherTaskService.createTask(request("after"), username);
+            assertEquals(1, otherDirectory.shardOf(username));
+
+            assertEquals(0, countOn(0, username));
+            assertEquals(2, countOn(1, username));
+            assertEquals(2, otherTaskService.getTasks(username, TaskFilter.NONE, Pageable.unpaged()).getTotalElements());
+        }
+    }
+
+    @Test
+    void shouldNotLoseWritesOfAnotherInstanceWhileMoving() {
+        String username = usernameOnShard(0, "concurrent");
+        int bucket = ShardDirectory.bucketOf(username);
+        try (ConfigurableApplicationContext otherInstance = startOtherInstance()) {
+            TaskService otherTaskService = otherInstance.getBean(TaskService.class);
+            CompletableFuture<Void> writes = CompletableFuture.runAsync(() -> IntStream.range(0, 200)
+                    .forEach(i -> otherTaskService.createTask(request("task" + i), username)));
+
+            int moves = 0;
+            do {
+                shardRebalancer.migrate(bucket, ++moves % 2);
+            } while (!writes.isDone());
+            writes.join();
+
+            int owner = directory.shardOf(username);
+            assertTrue(moves > 1);
+            assertEquals(200, countOn(owner, username));
+            assertEquals(0, countOn(1 - owner, username));
+            assertEquals(200, userTaskVersions.current(username));
+        }
+    }
+
+    @Test
+    void shouldDropWhatAnUnfinishedMoveLeftOnTheTarget() {
+        String username = usernameOnShard(0, "leftover");
+        TaskResponse kept = taskService.createTask(request("kept"), username);
+        // Copied by a move that was cut short, and deleted on shard 0 since.
+        new JdbcTemplate(shardDataSources.get(1)).update("INSERT INTO task (id, bucket, username, title, status, priority) " +
+                "VALUES (-2, ?, ?, 'deleted', 'TODO', 'MEDIUM')", ShardDirectory.bucketOf(username), username);
+
+        shardRebalancer.migrate(ShardDirectory.bucketOf(username), 1);
+
+        assertEquals(List.of(kept.id()), taskService.getTasks(username, TaskFilter.NONE, Pageable.unpaged())
+                .map(TaskResponse::id).getContent());
+    }
+
+    @Test
+    void shouldHoldCallsBackUntilAnInterruptedMoveIsRerun() throws Exception {
+        String username = usernameOnShard(0, "interrupted");
+        int bucket = ShardDirectory.bucketOf(username);
+        // Where a move that crashed before flipping the directory leaves the bucket.
+        directory.closeFence(0, bucket);
+
+        CompletableFuture<TaskResponse> created = CompletableFuture.supplyAsync(() -> taskService.createTask(request("held"), username));
+        Thread.sleep(200);
+        assertFalse(created.isDone());
+        assertEquals(0, countOn(0, username));
+
+        shardRebalancer.migrate(bucket, 1);
+
+        assertEquals("held", created.get(10, TimeUnit.SECONDS).title());
+        assertEquals(1, countOn(1, username));
+    }
+
+    private static Map<String, Object> shardProperties() {
+        Map<String, Object> properties = new HashMap<>();
+        for (int shard = 0; shard < 2; shard++) {
+            properties.put("task.sharding.shards[" + shard + "].url", "jdbc:h2:file:" + shardDirectory.resolve("shard" + shard).toAbsolutePath());
+            properties.put("task.sharding.shards[" + shard + "].username", "sa");
+            properties.put("task.sharding.shards[" + shard + "].password", "");
+        }
+        return properties;
+    }
+
+    // A second task-service on the same shards, as another replica of the service would be.
+    private static ConfigurableApplicationContext startOtherInstance() {
+        Map<String, Object> properties = shardProperties();
+        properties.put("server.port", 0);
+        return new SpringApplicationBuilder(TaskServiceApplication.class).properties(properties).run();
+    }
+
+    private String usernameOnShard(int shard, String prefix) {
+        return IntStream.range(0, 100).mapToObj(i -> prefix + i)
+                .filter(username -> directory.shardOf(username) == shard)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private int countOn(int shard, String username) {
+        return new JdbcTemplate(shardDataSources.get(shard))
+                .queryForObject("SELECT COUNT(*) FROM task WHERE username = ?", Integer.class, username);
+    }
+}
@@ -0,0 +1,82 @@
+package com.yappyd.taskservice.startup;
+
+import com.yappyd.taskservice.reminder.TaskReminderScheduler;
+import com.yappyd.taskservice.search.TaskSearchIndexer;
+import com.yappyd.taskservice.service.TaskStatisticsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StartupWarmupTest {
+
+    @Mock
+    private TaskSearchIndexer taskSearchIndexer;
+
+    @Mock
+    private TaskStatisticsService taskStatisticsService;
+
+    @Mock
+    private TaskReminderScheduler taskReminderScheduler;
+
+    private StartupWarmup startupWarmup;
+
+    @BeforeEach
+    void setUp() {
+        startupWarmup = new StartupWarmup(taskSearchIndexer, taskStatisticsService, taskReminderScheduler,
+                Duration.ofMillis(10), Duration.ofMillis(40), Duration.ofSeconds(5));
+        startupWarmup.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        startupWarmup.stop();
+    }
+
+    @Test
+    void shouldRetryFailedWarmupUntilItSucceeds() throws InterruptedException {
+        doThrow(new IllegalStateException("shard unavailable"))
+                .doThrow(new IllegalStateException("shard unavailable"))
+                .doNothing()
+                .when(taskSearchIndexer).rebuild();
+
+        startupWarmup.warmUp();
+        awaitComplete();
+
+        assertFalse(startupWarmup.hasFailed());
+        assertEquals(Status.UP, new WarmupHealthIndicator(startupWarmup).health().getStatus());
+        verify(taskSearchIndexer, times(3)).rebuild();
+    }
+
+    @Test
+    void shouldStopRetryingWhenTheContextCloses() throws InterruptedException {
+        doThrow(new IllegalStateException("shard unavailable")).when(taskSearchIndexer).rebuild();
+        startupWarmup.warmUp();
+        verify(taskSearchIndexer, timeout(1000).atLeast(2)).rebuild();
+        assertEquals(Status.DOWN, new WarmupHealthIndicator(startupWarmup).health().getStatus());
+
+        startupWarmup.stop();
+        clearInvocations(taskSearchIndexer);
+        Thread.sleep(100);
+
+        assertFalse(startupWarmup.isRunning());
+        verify(taskSearchIndexer, never()).rebuild();
+    }
+
+    private void awaitComplete() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!startupWarmup.isComplete() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(startupWarmup.isComplete());
+    }
+}